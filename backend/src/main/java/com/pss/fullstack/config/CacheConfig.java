@@ -0,0 +1,13 @@
+package com.pss.fullstack.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caches are Caffeine-backed and declared in application.yml (spring.cache);
+ * their hit/miss statistics are published as cache.* metrics on the actuator.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+}
@@ -0,0 +1,181 @@
+package com.pss.fullstack.config;
+
+import com.pss.fullstack.service.ResponseCacheService;
+import com.pss.fullstack.service.ResponseCacheService.CachedResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Serves the first pages of the album and artist lists (default sort, no filters) from
+ * {@link ResponseCacheService}: the JSON bytes, gzipped when the client accepts it, with the
+ * controller's version ETag and 304 on a matching If-None-Match. Other requests pass through untouched.
+ * Runs after the security chain, so authentication and rate limiting still apply.
+ */
+@Component
+@RequiredArgsConstructor
+public class ListResponseCacheFilter extends OncePerRequestFilter {
+
+    /** Cached list paths and their default sort field */
+    private static final Map<String, String> DEFAULT_SORT = Map.of(
+            "/v1/albums", "title",
+            "/v1/artists", "name"
+    );
+
+    private static final Set<String> KEY_PARAMS = Set.of("page", "size", "sortBy", "sortDir", "withTotal");
+
+    private static final String CACHE_CONTROL = "private, no-cache";
+
+    private final ResponseCacheService responseCacheService;
+
+    @Value("${response-cache.pages:1}")
+    private int cachedPages;
+
+    @Value("${response-cache.max-size:100}")
+    private int maxSize;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !"GET".equals(request.getMethod()) || !DEFAULT_SORT.containsKey(path(request));
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        String key = cacheKey(request);
+        if (key == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        CachedResponse cached = responseCacheService.get(key);
+        if (cached != null) {
+            write(cached, request, response);
+            return;
+        }
+
+        long generation = responseCacheService.generation();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, wrapper);
+
+        // Stored under the controller's ETag, so a hit and a miss tag the same page alike
+        String contentType = wrapper.getContentType();
+        String etag = wrapper.getHeader(HttpHeaders.ETAG);
+        if (wrapper.getStatus() == HttpServletResponse.SC_OK && isJson(contentType) && isStrong(etag)) {
+            responseCacheService.put(key, generation, contentType, etag, wrapper.getContentAsByteArray());
+            wrapper.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+            wrapper.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private void write(CachedResponse cached, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        boolean gzip = acceptsGzip(request);
+        response.setHeader(HttpHeaders.ETAG, gzip ? cached.gzipEtag() : cached.etag());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), cached)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        byte[] body = gzip ? cached.gzipped() : cached.body();
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentType(cached.contentType());
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /**
+     * Normalised key of a cacheable request, or null when it has filters, a cursor,
+     * a non-default sort or a page beyond the cached ones
+     */
+    private String cacheKey(HttpServletRequest request) {
+        for (Map.Entry<String, String[]> param : request.getParameterMap().entrySet()) {
+            if (!KEY_PARAMS.contains(param.getKey()) || param.getValue().length != 1) {
+                return null;
+            }
+        }
+
+        String path = path(request);
+        if (!DEFAULT_SORT.get(path).equals(param(request, "sortBy", DEFAULT_SORT.get(path)))
+                || !"asc".equalsIgnoreCase(param(request, "sortDir", "asc"))) {
+            return null;
+        }
+
+        String withTotal = param(request, "withTotal", "true").toLowerCase();
+        if (!withTotal.equals("true") && !withTotal.equals("false")) {
+            return null;
+        }
+
+        try {
+            int page = Integer.parseInt(param(request, "page", "0"));
+            int size = Integer.parseInt(param(request, "size", "10"));
+            if (page < 0 || page >= cachedPages || size < 1 || size > maxSize) {
+                return null;
+            }
+            return path + "?page=" + page + "&size=" + size + "&withTotal=" + withTotal;
+        } catch (NumberFormatException e) {
+            return null; // left to the controller to reject
+        }
+    }
+
+    private static boolean matches(String ifNoneMatch, CachedResponse cached) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(cached.etag()) || candidate.equals(cached.gzipEtag())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isStrong(String etag) {
+        return etag != null && etag.length() > 2 && etag.startsWith("\"") && etag.endsWith("\"");
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
+
+    private static boolean isJson(String contentType) {
+        return contentType != null && MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(contentType));
+    }
+
+    private static String param(HttpServletRequest request, String name, String defaultValue) {
+        String value = request.getParameter(name);
+        return value == null ? defaultValue : value;
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+}
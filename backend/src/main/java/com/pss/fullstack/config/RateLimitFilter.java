@@ -83,7 +83,8 @@ public class RateLimitFilter extends OncePerRequestFilter {
                 path.startsWith("/api/swagger-ui") ||
                 path.startsWith("/api/v3/api-docs") ||
                 path.startsWith("/api/ws") ||
-                path.startsWith("/api/v1/images"); // Image proxy endpoints
+                path.startsWith("/api/v1/images") || // Image proxy endpoints
+                path.startsWith("/api/v1/previews"); // Preview clip proxy
     }
 
     private String getUserKey(HttpServletRequest request) {
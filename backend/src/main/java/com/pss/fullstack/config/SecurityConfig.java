@@ -62,6 +62,7 @@ public class SecurityConfig {
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html").permitAll()
                         .requestMatchers("/ws/**").permitAll() // WebSocket endpoint
                         .requestMatchers("/v1/images/**").permitAll() // Public access for image proxy
+                        .requestMatchers("/v1/previews/**").permitAll() // Public access for preview clips
                         // All other requests require authentication
                         .anyRequest().authenticated()
                 )
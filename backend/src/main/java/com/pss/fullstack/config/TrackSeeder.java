@@ -1,9 +1,8 @@
 package com.pss.fullstack.config;
 
-import com.pss.fullstack.model.Album;
 import com.pss.fullstack.model.Track;
-import com.pss.fullstack.repository.AlbumRepository;
 import com.pss.fullstack.repository.TrackRepository;
+import com.pss.fullstack.service.PreviewService;
 import io.minio.BucketExistsArgs;
 import io.minio.MakeBucketArgs;
 import io.minio.MinioClient;
@@ -16,18 +15,28 @@ import org.springframework.boot.ApplicationRunner;
 import org.springframework.context.annotation.Profile;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
-
-import javax.sound.sampled.AudioFileFormat;
-import javax.sound.sampled.AudioFormat;
-import javax.sound.sampled.AudioInputStream;
-import javax.sound.sampled.AudioSystem;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
 
 /**
  * Seeds sample audio tracks for albums.
  * Generates simple sine wave audio files (royalty-free) for demonstration purposes.
+ * Tracks are synthesised in parallel on a bounded pool and streamed straight into MinIO.
  * Only runs in dev/docker profiles and skips if tracks already exist.
  */
 @Component
@@ -37,13 +46,17 @@ import java.util.*;
 @Order(3) // Run after ImageSeeder
 public class TrackSeeder implements ApplicationRunner {
 
-    private final AlbumRepository albumRepository;
     private final TrackRepository trackRepository;
     private final MinioClient minioClient;
+    private final TransactionTemplate transactionTemplate;
+    private final PreviewService previewService;
 
     @Value("${minio.bucket.audio:audio-tracks}")
     private String audioBucket;
 
+    @Value("${seed.tracks.parallelism:0}")
+    private int parallelism; // 0 = one thread per available core
+
     // Sample tracks for each album (title, duration in seconds, frequency in Hz)
     private static final Map<String, List<TrackInfo>> ALBUM_TRACKS = createAlbumTracks();
 
@@ -171,14 +184,19 @@ public class TrackSeeder implements ApplicationRunner {
         }
 
         log.info("Starting track seeding process...");
+        long startNanos = System.nanoTime();
+        List<MemoryPoolMXBean> heapPools = resetHeapPeaks();
+
         ensureAudioBucketExists();
-        seedTracks();
-        log.info("Track seeding completed!");
+        int seeded = seedTracks();
+
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        log.info("Track seeding completed! {} tracks in {} ms, peak heap {} MB",
+                seeded, elapsedMs, peakHeapUsage(heapPools) / (1024 * 1024));
     }
 
     private boolean tracksAlreadyHaveAudio() {
-        return trackRepository.findAll().stream()
-                .anyMatch(track -> track.getAudioKey() != null && !track.getAudioKey().isEmpty());
+        return trackRepository.existsByAudioKeyIsNotNull();
     }
 
     private void ensureAudioBucketExists() {
@@ -202,85 +220,216 @@ public class TrackSeeder implements ApplicationRunner {
         }
     }
 
-    private void seedTracks() {
-        List<Album> albums = albumRepository.findAll();
+    /**
+     * Generate and upload audio for every track without audio on a bounded pool,
+     * then apply all track updates in a single batched write.
+     */
+    private int seedTracks() {
+        // Existing tracks from migration, with their albums
+        List<Track> tracks = trackRepository.findAllWithoutAudio();
+        if (tracks.isEmpty()) {
+            log.warn("No tracks without audio found");
+            return 0;
+        }
 
-        for (Album album : albums) {
-            // Get existing tracks from migration
-            List<Track> existingTracks = trackRepository.findByAlbumIdOrderByTrackNumberAsc(album.getId());
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        threads = Math.min(threads, tracks.size());
+        log.info("Seeding audio for {} tracks using {} threads", tracks.size(), threads);
 
-            if (existingTracks.isEmpty()) {
-                log.warn("No tracks found for album: {}", album.getTitle());
-                continue;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        Map<Long, SeededAudio> seededAudio = new HashMap<>();
+        try {
+            List<Future<SeededAudio>> futures = new ArrayList<>(tracks.size());
+            for (Track track : tracks) {
+                futures.add(executor.submit(() -> seedTrack(track)));
             }
 
-            // Get frequency mapping for this album
-            List<TrackInfo> trackInfos = ALBUM_TRACKS.get(album.getTitle());
-            Map<String, Double> frequencyMap = new HashMap<>();
-            if (trackInfos != null) {
-                for (TrackInfo info : trackInfos) {
-                    frequencyMap.put(info.title.toLowerCase(), info.frequency);
+            for (int i = 0; i < futures.size(); i++) {
+                Track track = tracks.get(i);
+                try {
+                    SeededAudio audio = futures.get(i).get();
+                    seededAudio.put(track.getId(), audio);
+                    log.debug("Seeded audio for track: {} - {} (key: {})",
+                            track.getAlbum().getTitle(), track.getTitle(), audio.audioKey());
+                } catch (ExecutionException e) {
+                    log.warn("Error seeding audio for track {} in album {}: {}",
+                            track.getTitle(), track.getAlbum().getTitle(), e.getCause().getMessage());
                 }
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Track seeding interrupted");
+        } finally {
+            executor.shutdownNow();
+        }
 
-            for (Track track : existingTracks) {
-                // Skip if already has audio
-                if (track.getAudioKey() != null && !track.getAudioKey().isEmpty()) {
-                    continue;
-                }
+        saveSeededAudio(seededAudio);
+        seededAudio.forEach((trackId, audio) -> previewService.generatePreview(trackId, audio.audioKey()));
+        return seededAudio.size();
+    }
 
-                try {
-                    // Get frequency for this track or use default based on track number
-                    double frequency = frequencyMap.getOrDefault(
-                            track.getTitle().toLowerCase(),
-                            262.0 + (track.getTrackNumber() * 30.0) // Default: C4 + offset
-                    );
-
-                    // Use track's existing duration (from migration) or default
-                    int duration = track.getDuration() > 0 ? Math.min(track.getDuration() / 10, 20) : 15;
-                    if (duration < 8) duration = 8;
-
-                    // Generate and upload audio file
-                    byte[] audioData = generateSineWaveAudio(frequency, duration);
-                    String audioKey = uploadAudioFile(album.getId(), track.getId(), audioData);
-
-                    // Update track with audio info
-                    track.setAudioKey(audioKey);
-                    track.setAudioFormat("WAV");
-                    track.setFileSize((long) audioData.length);
-                    track.setBitrate(calculateBitrate(audioData.length, duration));
-                    trackRepository.save(track);
-
-                    log.info("Seeded audio for track: {} - {} (key: {})", album.getTitle(), track.getTitle(), audioKey);
-
-                } catch (Exception e) {
-                    log.warn("Error seeding audio for track {} in album {}: {}", track.getTitle(), album.getTitle(), e.getMessage());
-                }
-            }
+    private SeededAudio seedTrack(Track track) throws Exception {
+        // Get frequency for this track or use default based on track number
+        List<TrackInfo> trackInfos = ALBUM_TRACKS.getOrDefault(track.getAlbum().getTitle(), List.of());
+        double frequency = trackInfos.stream()
+                .filter(info -> info.title().equalsIgnoreCase(track.getTitle()))
+                .mapToDouble(TrackInfo::frequency)
+                .findFirst()
+                .orElse(262.0 + (track.getTrackNumber() * 30.0)); // Default: C4 + offset
+
+        // Use track's existing duration (from migration) or default
+        int duration = track.getDuration() > 0 ? Math.min(track.getDuration() / 10, 20) : 15;
+        if (duration < 8) duration = 8;
+
+        // Generate and upload audio file, checksumming it on the way (needed for album ZIP downloads)
+        SineWaveInputStream audio = new SineWaveInputStream(frequency, duration);
+        CRC32 crc = new CRC32();
+        String audioKey = uploadAudioFile(track.getAlbum().getId(), track.getId(),
+                new CheckedInputStream(audio, crc), audio.length());
+
+        return new SeededAudio(audioKey, audio.length(), crc.getValue(), calculateBitrate(audio.length(), duration));
+    }
+
+    /**
+     * Apply the audio metadata of all seeded tracks in one transaction,
+     * flushed as JDBC batches (see hibernate.jdbc.batch_size).
+     */
+    private void saveSeededAudio(Map<Long, SeededAudio> seededAudio) {
+        if (seededAudio.isEmpty()) {
+            return;
         }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Track track : trackRepository.findAllById(seededAudio.keySet())) {
+                SeededAudio audio = seededAudio.get(track.getId());
+                track.setAudioKey(audio.audioKey());
+                track.setAudioFormat("WAV");
+                track.setFileSize(audio.fileSize());
+                track.setAudioCrc32(audio.crc32());
+                track.setBitrate(audio.bitrate());
+            }
+        });
+    }
+
+    /**
+     * Upload audio file to MinIO, streaming it straight from the generator.
+     */
+    private String uploadAudioFile(Long albumId, Long trackId, InputStream audio, long length) throws Exception {
+        String audioKey = String.format("albums/%d/tracks/%d-%s.wav",
+                albumId, trackId, UUID.randomUUID().toString());
+
+        minioClient.putObject(
+                PutObjectArgs.builder()
+                        .bucket(audioBucket)
+                        .object(audioKey)
+                        .stream(audio, length, -1)
+                        .contentType("audio/wav")
+                        .build()
+        );
+
+        return audioKey;
+    }
+
+    private int calculateBitrate(long fileSize, int duration) {
+        if (duration == 0) return 0;
+        return (int) ((fileSize * 8) / (duration * 1000L));
+    }
+
+    private List<MemoryPoolMXBean> resetHeapPeaks() {
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        return heapPools;
+    }
+
+    private long peakHeapUsage(List<MemoryPoolMXBean> heapPools) {
+        return heapPools.stream()
+                .mapToLong(pool -> pool.getPeakUsage().getUsed())
+                .sum();
     }
 
     /**
-     * Generate a simple sine wave audio file in WAV format.
-     * Creates a pleasant tone with fade in/out to avoid clicks.
+     * Generates a 16-bit mono PCM WAV file on the fly: the header followed by a sine wave
+     * with harmonics, fade in/out (to avoid clicks) and a slight tremolo.
+     * Samples are computed as they are read, so no audio buffer is ever materialised.
      */
-    private byte[] generateSineWaveAudio(double frequency, int durationSeconds) {
-        float sampleRate = 44100;
-        int sampleSizeInBits = 16;
-        int channels = 1; // Mono
-        boolean signed = true;
-        boolean bigEndian = false;
+    private static final class SineWaveInputStream extends InputStream {
+
+        private static final int SAMPLE_RATE = 44100;
+        private static final int BYTES_PER_SAMPLE = 2; // 16 bits, mono
+        private static final int HEADER_SIZE = 44;
+        private static final double FADE_TIME = 0.1; // 100ms fade in/out
+
+        private final double frequency;
+        private final int totalSamples;
+        private final int fadeSamples;
+        private final byte[] header;
+        private long position;
+
+        SineWaveInputStream(double frequency, int durationSeconds) {
+            this.frequency = frequency;
+            this.totalSamples = SAMPLE_RATE * durationSeconds;
+            this.fadeSamples = (int) (SAMPLE_RATE * FADE_TIME);
+            this.header = wavHeader(totalSamples * BYTES_PER_SAMPLE);
+        }
+
+        long length() {
+            return HEADER_SIZE + (long) totalSamples * BYTES_PER_SAMPLE;
+        }
+
+        @Override
+        public int read() {
+            if (position >= length()) {
+                return -1;
+            }
+            int value = byteAt(position);
+            position++;
+            return value;
+        }
 
-        AudioFormat format = new AudioFormat(sampleRate, sampleSizeInBits, channels, signed, bigEndian);
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            long remaining = length() - position;
+            if (remaining <= 0) {
+                return -1;
+            }
+
+            int count = (int) Math.min(length, remaining);
+            int i = 0;
+            while (i < count) {
+                if (position < HEADER_SIZE || (position - HEADER_SIZE) % BYTES_PER_SAMPLE != 0 || count - i < 2) {
+                    buffer[offset + i++] = (byte) byteAt(position++);
+                } else {
+                    // Write a whole little-endian sample at once
+                    short sample = sample((int) ((position - HEADER_SIZE) / BYTES_PER_SAMPLE));
+                    buffer[offset + i++] = (byte) (sample & 0xFF);
+                    buffer[offset + i++] = (byte) ((sample >> 8) & 0xFF);
+                    position += 2;
+                }
+            }
+            return count;
+        }
 
-        int totalSamples = (int) (sampleRate * durationSeconds);
-        byte[] audioBytes = new byte[totalSamples * 2]; // 16 bits = 2 bytes per sample
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, length() - position);
+        }
 
-        double fadeTime = 0.1; // 100ms fade in/out
-        int fadeSamples = (int) (sampleRate * fadeTime);
+        private int byteAt(long pos) {
+            if (pos < HEADER_SIZE) {
+                return header[(int) pos] & 0xFF;
+            }
+            long dataPos = pos - HEADER_SIZE;
+            short sample = sample((int) (dataPos / BYTES_PER_SAMPLE));
+            return (dataPos % BYTES_PER_SAMPLE == 0 ? sample : sample >> 8) & 0xFF;
+        }
 
-        for (int i = 0; i < totalSamples; i++) {
-            double time = i / sampleRate;
+        private short sample(int i) {
+            double time = (double) i / SAMPLE_RATE;
             double angle = 2.0 * Math.PI * frequency * time;
 
             // Generate sine wave with harmonics for richer sound
@@ -302,50 +451,33 @@ public class TrackSeeder implements ApplicationRunner {
             value = value * envelope * tremolo * 0.7; // 0.7 to prevent clipping
 
             // Convert to 16-bit signed integer
-            short sample = (short) (value * Short.MAX_VALUE);
-
-            // Write as little-endian
-            audioBytes[i * 2] = (byte) (sample & 0xFF);
-            audioBytes[i * 2 + 1] = (byte) ((sample >> 8) & 0xFF);
+            return (short) (value * Short.MAX_VALUE);
         }
 
-        // Convert to WAV format
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-            ByteArrayInputStream bais = new ByteArrayInputStream(audioBytes);
-            AudioInputStream audioInputStream = new AudioInputStream(bais, format, totalSamples);
-
-            AudioSystem.write(audioInputStream, AudioFileFormat.Type.WAVE, baos);
-            return baos.toByteArray();
-
-        } catch (Exception e) {
-            log.error("Failed to generate audio file: {}", e.getMessage());
-            return new byte[0];
+        private static byte[] wavHeader(int dataSize) {
+            return ByteBuffer.allocate(HEADER_SIZE)
+                    .order(ByteOrder.LITTLE_ENDIAN)
+                    .put("RIFF".getBytes(StandardCharsets.US_ASCII))
+                    .putInt(36 + dataSize)
+                    .put("WAVE".getBytes(StandardCharsets.US_ASCII))
+                    .put("fmt ".getBytes(StandardCharsets.US_ASCII))
+                    .putInt(16)                                // PCM chunk size
+                    .putShort((short) 1)                       // PCM format
+                    .putShort((short) 1)                       // Mono
+                    .putInt(SAMPLE_RATE)
+                    .putInt(SAMPLE_RATE * BYTES_PER_SAMPLE)    // Byte rate
+                    .putShort((short) BYTES_PER_SAMPLE)        // Block align
+                    .putShort((short) 16)                      // Bits per sample
+                    .put("data".getBytes(StandardCharsets.US_ASCII))
+                    .putInt(dataSize)
+                    .array();
         }
     }
 
     /**
-     * Upload audio file to MinIO.
+     * Result of seeding one track, applied to the track in the batched write.
      */
-    private String uploadAudioFile(Long albumId, Long trackId, byte[] audioData) throws Exception {
-        String audioKey = String.format("albums/%d/tracks/%d-%s.wav",
-                albumId, trackId, UUID.randomUUID().toString());
-
-        minioClient.putObject(
-                PutObjectArgs.builder()
-                        .bucket(audioBucket)
-                        .object(audioKey)
-                        .stream(new ByteArrayInputStream(audioData), audioData.length, -1)
-                        .contentType("audio/wav")
-                        .build()
-        );
-
-        return audioKey;
-    }
-
-    private int calculateBitrate(int fileSize, int duration) {
-        if (duration == 0) return 0;
-        return (fileSize * 8) / (duration * 1000);
-    }
+    private record SeededAudio(String audioKey, long fileSize, long crc32, int bitrate) {}
 
     /**
      * Track information holder.
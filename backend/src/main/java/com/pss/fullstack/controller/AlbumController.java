@@ -1,7 +1,13 @@
 package com.pss.fullstack.controller;
 
 import com.pss.fullstack.dto.*;
+import com.pss.fullstack.service.AlbumArchiveService;
+import com.pss.fullstack.service.AlbumArchiveService.AlbumArchive;
+import com.pss.fullstack.service.AlbumExportService;
+import com.pss.fullstack.service.AlbumImportService;
 import com.pss.fullstack.service.AlbumService;
+import com.pss.fullstack.service.CatalogFormat;
+import com.pss.fullstack.service.ListTag;
 import com.pss.fullstack.service.StorageService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -9,14 +15,24 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 @RestController
@@ -27,10 +43,14 @@ public class AlbumController {
 
     private final AlbumService albumService;
     private final StorageService storageService;
+    private final AlbumArchiveService albumArchiveService;
+    private final AlbumExportService albumExportService;
+    private final AlbumImportService albumImportService;
 
     @GetMapping
-    @Operation(summary = "List all albums with pagination and filtering")
-    public ResponseEntity<PageResponse<AlbumDTO>> findAll(
+    @Operation(summary = "List all albums with pagination and filtering (summaries, without tracks). " +
+            "Offset pages carry an ETag and honour If-None-Match")
+    public ResponseEntity<PageResponse<AlbumListItemDTO>> findAll(
             @Parameter(description = "Filter by title (partial match)")
             @RequestParam(required = false) String title,
 
@@ -40,6 +60,9 @@ public class AlbumController {
             @Parameter(description = "Page number (0-based)")
             @RequestParam(defaultValue = "0") int page,
 
+            @Parameter(description = "Keyset cursor: empty for the first page, then the previous page's nextCursor. Switches to cursor mode (no totals)")
+            @RequestParam(required = false) String cursor,
+
             @Parameter(description = "Page size")
             @RequestParam(defaultValue = "10") int size,
 
@@ -47,42 +70,122 @@ public class AlbumController {
             @RequestParam(defaultValue = "title") String sortBy,
 
             @Parameter(description = "Sort direction (asc or desc)")
-            @RequestParam(defaultValue = "asc") String sortDir
+            @RequestParam(defaultValue = "asc") String sortDir,
+
+            @Parameter(description = "Include totalElements/totalPages (false skips the count query)")
+            @RequestParam(defaultValue = "true") boolean withTotal,
+
+            @Parameter(description = "Album properties to return, comma-separated (default: all)")
+            @RequestParam(required = false) Set<String> fields,
+
+            @Parameter(description = "Associations to load: artists, covers (default: all)")
+            @RequestParam(required = false) Set<String> include,
+
+            WebRequest request
     ) {
         log.info("Fetching albums - page: {}, size: {}, sortBy: {}, sortDir: {}", page, size, sortBy, sortDir);
-        PageResponse<AlbumDTO> response;
+        FieldSelection selection = new FieldSelection(fields, include);
+        PageResponse<AlbumListItemDTO> response;
 
-        if (title != null || year != null) {
-            response = albumService.findByFilters(title, year, page, size, sortBy, sortDir);
+        if (cursor != null) {
+            response = albumService.findByCursor(title, year, null, cursor, size, sortBy, sortDir, selection);
         } else {
-            response = albumService.findAll(page, size, sortBy, sortDir);
+            ListTag tag = albumService.findListEtag(title, year, page, size, sortBy, sortDir, withTotal);
+            if (request.checkNotModified(tag.etag())) {
+                return null; // 304 with the ETag, nothing assembled
+            }
+            // The tag query already counted the rows
+            response = title != null || year != null
+                    ? albumService.findByFilters(title, year, page, size, sortBy, sortDir, withTotal, tag.total(), selection)
+                    : albumService.findAll(page, size, sortBy, sortDir, withTotal, tag.total(), selection);
         }
 
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/export")
+    @Operation(summary = "Export every active album with artists, tracks and cover URLs, streamed as NDJSON or CSV")
+    public ResponseEntity<StreamingResponseBody> export(
+            @Parameter(description = "Export format (ndjson or csv)")
+            @RequestParam(defaultValue = "ndjson") String format
+    ) {
+        CatalogFormat exportFormat = CatalogFormat.parse(format);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(exportFormat.contentType() + ";charset=UTF-8"));
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename("albums." + exportFormat.extension())
+                .build());
+
+        // Streamed from one DB cursor in the export's own transaction; no Content-Length
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(out -> albumExportService.export(exportFormat, out));
+    }
+
+    @GetMapping("/facets")
+    @Operation(summary = "Counts of the albums matching the list filters by genre, release year and decade")
+    public ResponseEntity<FacetsDTO> findFacets(
+            @Parameter(description = "Filter by title (partial match)")
+            @RequestParam(required = false) String title,
+
+            @Parameter(description = "Filter by release year")
+            @RequestParam(required = false) Integer year
+    ) {
+        return ResponseEntity.ok(albumService.findFacets(title, year));
+    }
+
     @GetMapping("/{id}")
-    @Operation(summary = "Get album by ID")
+    @Operation(summary = "Get album by ID, with all tracks. Carries an ETag and honours If-None-Match")
     public ResponseEntity<AlbumDTO> findById(
             @Parameter(description = "Album ID")
-            @PathVariable Long id
+            @PathVariable Long id,
+
+            @Parameter(description = "Album properties to return, comma-separated (default: all)")
+            @RequestParam(required = false) Set<String> fields,
+
+            @Parameter(description = "Associations to load: artists, tracks, covers (default: all)")
+            @RequestParam(required = false) Set<String> include,
+
+            WebRequest request
     ) {
-        return ResponseEntity.ok(albumService.findById(id));
+        if (request.checkNotModified(albumService.findEtag(id))) {
+            return null;
+        }
+        FieldSelection selection = new FieldSelection(fields, include);
+        // The full representation is served from the detail cache
+        return ResponseEntity.ok(selection.isAll() ? albumService.findById(id) : albumService.findById(id, selection));
     }
 
     @GetMapping("/artist/{artistId}")
     @Operation(summary = "Get albums by artist ID with pagination")
-    public ResponseEntity<PageResponse<AlbumDTO>> findByArtistId(
+    public ResponseEntity<PageResponse<AlbumListItemDTO>> findByArtistId(
             @Parameter(description = "Artist ID")
             @PathVariable Long artistId,
 
             @Parameter(description = "Page number (0-based)")
             @RequestParam(defaultValue = "0") int page,
 
+            @Parameter(description = "Keyset cursor: empty for the first page, then the previous page's nextCursor. Switches to cursor mode (no totals)")
+            @RequestParam(required = false) String cursor,
+
             @Parameter(description = "Page size")
-            @RequestParam(defaultValue = "10") int size
+            @RequestParam(defaultValue = "10") int size,
+
+            @Parameter(description = "Include totalElements/totalPages (false skips the count query)")
+            @RequestParam(defaultValue = "true") boolean withTotal,
+
+            @Parameter(description = "Album properties to return, comma-separated (default: all)")
+            @RequestParam(required = false) Set<String> fields,
+
+            @Parameter(description = "Associations to load: artists, covers (default: all)")
+            @RequestParam(required = false) Set<String> include
     ) {
-        return ResponseEntity.ok(albumService.findByArtistId(artistId, page, size));
+        FieldSelection selection = new FieldSelection(fields, include);
+        if (cursor != null) {
+            return ResponseEntity.ok(albumService.findByCursor(null, null, artistId, cursor, size, "title", "asc", selection));
+        }
+        return ResponseEntity.ok(albumService.findByArtistId(artistId, page, size, withTotal, selection));
     }
 
     @PostMapping
@@ -94,6 +197,19 @@ public class AlbumController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    @PostMapping("/import")
+    @Operation(summary = "Bulk import albums from an NDJSON or CSV body (an export imports again as new albums: artists by id, tracks with durations, other fields ignored). " +
+            "Commits in chunks and reports rejected rows instead of failing the whole import")
+    public ResponseEntity<ImportResultDTO> importAlbums(
+            @Parameter(description = "Import format (ndjson or csv)")
+            @RequestParam(defaultValue = "ndjson") String format,
+
+            InputStream body
+    ) throws IOException {
+        CatalogFormat importFormat = CatalogFormat.parse(format);
+        return ResponseEntity.ok(albumImportService.importAlbums(importFormat, body));
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update an existing album")
     public ResponseEntity<AlbumDTO> update(
@@ -168,6 +284,51 @@ public class AlbumController {
         return ResponseEntity.ok(playlist);
     }
 
+    @GetMapping("/{id}/download")
+    @Operation(summary = "Download all album tracks as a ZIP archive (resumable with Range requests)")
+    public ResponseEntity<StreamingResponseBody> download(
+            @Parameter(description = "Album ID")
+            @PathVariable Long id,
+
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange
+    ) {
+        AlbumArchive archive = albumArchiveService.buildArchive(id);
+        long length = archive.length();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/zip"));
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename(archive.fileName(), StandardCharsets.UTF_8)
+                .build());
+        headers.setETag(archive.etag());
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        // A Range is honoured only while the archive is unchanged (If-Range), otherwise the whole archive is sent
+        HttpRange httpRange = parseSingleRange(range);
+        if (httpRange == null || (ifRange != null && !ifRange.equals(archive.etag()))) {
+            headers.setContentLength(length);
+            return ResponseEntity.ok()
+                    .headers(headers)
+                    .body(out -> albumArchiveService.writeRange(archive, 0, length - 1, out));
+        }
+
+        long first = httpRange.getRangeStart(length);
+        long last = httpRange.getRangeEnd(length);
+        // A resumed download that is already complete asks for bytes=<length>-
+        if (first >= length || last < first) {
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + length)
+                    .build();
+        }
+
+        headers.setContentLength(last - first + 1);
+        headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + first + "-" + last + "/" + length);
+        return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                .headers(headers)
+                .body(out -> albumArchiveService.writeRange(archive, first, last, out));
+    }
+
     @DeleteMapping("/{id}/covers")
     @Operation(summary = "Remove all album cover images")
     public ResponseEntity<Void> removeCover(
@@ -188,4 +349,19 @@ public class AlbumController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Parse a single-range Range header; malformed or multi-range headers are ignored
+     */
+    private HttpRange parseSingleRange(String range) {
+        if (range == null) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(range);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
 }
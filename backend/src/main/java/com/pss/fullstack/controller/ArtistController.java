@@ -3,6 +3,7 @@ package com.pss.fullstack.controller;
 import com.pss.fullstack.dto.*;
 import com.pss.fullstack.model.ArtistType;
 import com.pss.fullstack.service.ArtistService;
+import com.pss.fullstack.service.ListTag;
 import com.pss.fullstack.service.StorageService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -13,10 +14,12 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/v1/artists")
@@ -27,7 +30,8 @@ public class ArtistController {
     private final ArtistService artistService;
 
     @GetMapping
-    @Operation(summary = "List all artists with pagination and filtering")
+    @Operation(summary = "List all artists with pagination and filtering, each with a preview of its newest albums " +
+            "(the full discography is on the detail). Offset pages carry an ETag and honour If-None-Match")
     public ResponseEntity<PageResponse<ArtistDTO>> findAll(
             @Parameter(description = "Filter by name (partial match)")
             @RequestParam(required = false) String name,
@@ -38,6 +42,9 @@ public class ArtistController {
             @Parameter(description = "Page number (0-based)")
             @RequestParam(defaultValue = "0") int page,
 
+            @Parameter(description = "Keyset cursor: empty for the first page, then the previous page's nextCursor. Switches to cursor mode (no totals)")
+            @RequestParam(required = false) String cursor,
+
             @Parameter(description = "Page size")
             @RequestParam(defaultValue = "10") int size,
 
@@ -45,38 +52,85 @@ public class ArtistController {
             @RequestParam(defaultValue = "name") String sortBy,
 
             @Parameter(description = "Sort direction (asc or desc)")
-            @RequestParam(defaultValue = "asc") String sortDir
+            @RequestParam(defaultValue = "asc") String sortDir,
+
+            @Parameter(description = "Include totalElements/totalPages (false skips the count query)")
+            @RequestParam(defaultValue = "true") boolean withTotal,
+
+            @Parameter(description = "Artist properties to return, comma-separated (default: all)")
+            @RequestParam(required = false) Set<String> fields,
+
+            @Parameter(description = "Associations to load: albums, as previews (default: all)")
+            @RequestParam(required = false) Set<String> include,
+
+            WebRequest request
     ) {
+        FieldSelection selection = new FieldSelection(fields, include);
         PageResponse<ArtistDTO> response;
 
-        if (name != null || type != null) {
-            response = artistService.findByFilters(name, type, page, size, sortBy, sortDir);
+        if (cursor != null) {
+            response = artistService.findByCursor(name, type, cursor, size, sortBy, sortDir, selection);
         } else {
-            response = artistService.findAll(page, size, sortBy, sortDir);
+            ListTag tag = artistService.findListEtag(name, type, page, size, sortBy, sortDir, withTotal);
+            if (request.checkNotModified(tag.etag())) {
+                return null; // 304 with the ETag, nothing assembled
+            }
+            // The tag query already counted the rows
+            response = name != null || type != null
+                    ? artistService.findByFilters(name, type, page, size, sortBy, sortDir, withTotal, tag.total(), selection)
+                    : artistService.findAll(page, size, sortBy, sortDir, withTotal, tag.total(), selection);
         }
 
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/facets")
+    @Operation(summary = "Counts of the artists matching the list filters by type and country")
+    public ResponseEntity<FacetsDTO> findFacets(
+            @Parameter(description = "Filter by name (partial match)")
+            @RequestParam(required = false) String name,
+
+            @Parameter(description = "Filter by type (SOLO or BAND)")
+            @RequestParam(required = false) ArtistType type
+    ) {
+        return ResponseEntity.ok(artistService.findFacets(name, type));
+    }
+
     @GetMapping("/{id}")
-    @Operation(summary = "Get artist by ID")
+    @Operation(summary = "Get artist by ID. Carries an ETag and honours If-None-Match")
     public ResponseEntity<ArtistDTO> findById(
             @Parameter(description = "Artist ID")
-            @PathVariable Long id
+            @PathVariable Long id,
+
+            @Parameter(description = "Artist properties to return, comma-separated (default: all)")
+            @RequestParam(required = false) Set<String> fields,
+
+            @Parameter(description = "Associations to load: albums (default: all)")
+            @RequestParam(required = false) Set<String> include,
+
+            WebRequest request
     ) {
-        return ResponseEntity.ok(artistService.findById(id));
+        if (request.checkNotModified(artistService.findEtag(id))) {
+            return null;
+        }
+        FieldSelection selection = new FieldSelection(fields, include);
+        // The full representation is served from the detail cache
+        return ResponseEntity.ok(selection.isAll() ? artistService.findById(id) : artistService.findById(id, selection));
     }
 
     @GetMapping("/search")
-    @Operation(summary = "Search artists by name with sorting")
-    public ResponseEntity<List<ArtistDTO>> searchByName(
+    @Operation(summary = "Search active artists by name (partial, case-insensitive) with sorting; id, name and type only")
+    public ResponseEntity<List<ArtistSimpleDTO>> searchByName(
             @Parameter(description = "Name to search for")
             @RequestParam String name,
 
             @Parameter(description = "Sort direction (asc or desc)")
-            @RequestParam(defaultValue = "asc") String sortDir
+            @RequestParam(defaultValue = "asc") String sortDir,
+
+            @Parameter(description = "Maximum number of artists (1-50)")
+            @RequestParam(defaultValue = "20") int limit
     ) {
-        return ResponseEntity.ok(artistService.searchByName(name, sortDir));
+        return ResponseEntity.ok(artistService.searchByName(name, sortDir, limit));
     }
 
     @PostMapping
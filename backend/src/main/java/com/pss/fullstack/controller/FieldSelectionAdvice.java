@@ -0,0 +1,39 @@
+package com.pss.fullstack.controller;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.pss.fullstack.dto.FieldSelection;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+/**
+ * Serialises only the {@code ?fields=} of the album and artist DTOs (those annotated with
+ * {@code @JsonFilter(FieldSelection.JSON_FILTER)}); wrappers such as PageResponse and nested
+ * DTOs are left whole. Unknown field names are ignored.
+ */
+@RestControllerAdvice(assignableTypes = {AlbumController.class, ArtistController.class})
+public class FieldSelectionAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        String fields = request instanceof ServletServerHttpRequest servletRequest
+                ? servletRequest.getServletRequest().getParameter("fields")
+                : null;
+
+        SimpleBeanPropertyFilter filter = fields == null
+                ? SimpleBeanPropertyFilter.serializeAll()
+                : SimpleBeanPropertyFilter.filterOutAllExcept(
+                        StringUtils.commaDelimitedListToSet(StringUtils.trimAllWhitespace(fields)));
+        bodyContainer.setFilters(new SimpleFilterProvider().addFilter(FieldSelection.JSON_FILTER, filter));
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.pss.fullstack.controller;
+
+import com.pss.fullstack.exception.ResourceNotFoundException;
+import com.pss.fullstack.service.StorageService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/v1/previews")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Preview Proxy", description = "Track preview clips served from MinIO storage")
+public class PreviewProxyController {
+
+    private final StorageService storageService;
+
+    @Value("${minio.bucket.previews:audio-previews}")
+    private String previewBucket;
+
+    @GetMapping("/{objectKey}")
+    @Operation(summary = "Get track preview clip")
+    public ResponseEntity<byte[]> getPreview(
+            @PathVariable String objectKey,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+
+        // Content-addressed keys: hex digest plus extension
+        if (!objectKey.matches("^[a-f0-9]{64}\\.(mp3|wav)$")) {
+            log.warn("Invalid preview key requested: {}", objectKey);
+            return ResponseEntity.badRequest().build();
+        }
+
+        // The key is derived from the content, so it never changes and can be cached for good
+        String etag = "\"" + objectKey.substring(0, objectKey.indexOf('.')) + "\"";
+        CacheControl cacheControl = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(cacheControl)
+                    .eTag(etag)
+                    .build();
+        }
+
+        try {
+            byte[] previewData = storageService.getObjectFromBucket(objectKey, previewBucket);
+
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(objectKey.endsWith(".mp3") ? "audio/mpeg" : "audio/wav"))
+                    .cacheControl(cacheControl)
+                    .eTag(etag)
+                    .body(previewData);
+
+        } catch (ResourceNotFoundException e) {
+            log.debug("Preview not found: {}", objectKey);
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
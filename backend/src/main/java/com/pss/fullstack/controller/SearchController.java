@@ -0,0 +1,52 @@
+package com.pss.fullstack.controller;
+
+import com.pss.fullstack.dto.SearchHitDTO;
+import com.pss.fullstack.dto.SuggestionDTO;
+import com.pss.fullstack.service.SearchService;
+import com.pss.fullstack.service.SuggestService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/v1/search")
+@RequiredArgsConstructor
+@Tag(name = "Search", description = "Catalog search endpoints")
+public class SearchController {
+
+    private final SearchService searchService;
+    private final SuggestService suggestService;
+
+    @GetMapping
+    @Operation(summary = "Ranked, typo-tolerant search across albums, artists and track titles")
+    public ResponseEntity<List<SearchHitDTO>> search(
+            @Parameter(description = "Search text (words, \"quoted phrases\" and -exclusions are supported)")
+            @RequestParam String q,
+
+            @Parameter(description = "Maximum number of hits (1-50)")
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        return ResponseEntity.ok(searchService.search(q, limit));
+    }
+
+    @GetMapping("/suggest")
+    @Operation(summary = "Typeahead suggestions: albums, artists and tracks with a word starting with each query word")
+    public ResponseEntity<List<SuggestionDTO>> suggest(
+            @Parameter(description = "Text typed so far")
+            @RequestParam String q,
+
+            @Parameter(description = "Maximum number of suggestions (1-20)")
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(suggestService.suggest(q, limit));
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.pss.fullstack.controller;
+
+import com.pss.fullstack.dto.ArtistStatsDTO;
+import com.pss.fullstack.dto.CatalogStatsDTO;
+import com.pss.fullstack.service.CatalogStatsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/v1/stats")
+@RequiredArgsConstructor
+@Tag(name = "Stats", description = "Catalog statistics for dashboards, refreshed in the background")
+public class StatsController {
+
+    private final CatalogStatsService catalogStatsService;
+
+    @GetMapping
+    @Operation(summary = "Totals of the active catalog (artists, albums, tracks, duration, release range) as of refreshedAt")
+    public ResponseEntity<CatalogStatsDTO> getCatalogStats() {
+        return ResponseEntity.ok(catalogStatsService.getCatalogStats());
+    }
+
+    @GetMapping("/artists")
+    @Operation(summary = "Active artists ranked by one of their totals, highest first")
+    public ResponseEntity<List<ArtistStatsDTO>> getTopArtists(
+            @Parameter(description = "Ranking (albumCount, trackCount, totalDuration or latestRelease)")
+            @RequestParam(defaultValue = "albumCount") String sortBy,
+
+            @Parameter(description = "Maximum number of artists (1-100)")
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        return ResponseEntity.ok(catalogStatsService.getTopArtists(sortBy, limit));
+    }
+
+    @GetMapping("/artists/{id}")
+    @Operation(summary = "Totals of an artist over its active albums")
+    public ResponseEntity<ArtistStatsDTO> getArtistStats(
+            @Parameter(description = "Artist ID")
+            @PathVariable Long id
+    ) {
+        return ResponseEntity.ok(catalogStatsService.getArtistStats(id));
+    }
+
+}
@@ -2,6 +2,7 @@ package com.pss.fullstack.controller;
 
 import com.pss.fullstack.dto.TrackDTO;
 import com.pss.fullstack.service.AudioService;
+import com.pss.fullstack.service.AudioService.AudioSegment;
 import com.pss.fullstack.service.TrackService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,12 +12,16 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -26,6 +31,9 @@ import java.util.Map;
 @Tag(name = "Tracks", description = "Track management and audio streaming endpoints")
 public class TrackController {
 
+    // Byte offset in the audio file at which a seek response's body starts
+    static final String AUDIO_OFFSET = "X-Audio-Offset";
+
     private final TrackService trackService;
     private final AudioService audioService;
 
@@ -73,6 +81,74 @@ public class TrackController {
                 ));
     }
 
+    @GetMapping("/{id}/audio")
+    @Operation(summary = "Stream track audio, optionally starting at a position (seek index, MP3 only)",
+            description = "The body starts at the frame playing at the requested position; its byte offset in the "
+                    + "file is returned in " + AUDIO_OFFSET + ". A single byte range addresses that body.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Audio from the requested position"),
+            @ApiResponse(responseCode = "206", description = "Requested byte range of the audio"),
+            @ApiResponse(responseCode = "400", description = "Track has no audio or cannot seek to the position"),
+            @ApiResponse(responseCode = "404", description = "Track not found"),
+            @ApiResponse(responseCode = "416", description = "Byte range outside the audio")
+    })
+    public ResponseEntity<StreamingResponseBody> streamAudio(
+            @Parameter(description = "Track ID")
+            @PathVariable Long id,
+
+            @Parameter(description = "Start position in seconds")
+            @RequestParam(defaultValue = "0") double t,
+
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range
+    ) {
+        AudioSegment segment = audioService.getAudioSegment(id, t);
+        MediaType contentType = MediaType.parseMediaType(segment.contentType());
+        HttpRange byteRange = segment.fileSize() != null ? singleRange(range) : null;
+
+        if (byteRange == null) {
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(contentType)
+                    .header(AUDIO_OFFSET, String.valueOf(segment.offset()));
+            if (segment.fileSize() != null) {
+                response.header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                        .contentLength(segment.fileSize() - segment.offset());
+            }
+            return response.body(out -> audioService.writeAudio(segment, out));
+        }
+
+        long length = segment.fileSize() - segment.offset();
+        long start = byteRange.getRangeStart(length);
+        long end = byteRange.getRangeEnd(length);
+        if (start >= length || end < start) {
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + length)
+                    .build();
+        }
+
+        return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                .contentType(contentType)
+                .header(AUDIO_OFFSET, String.valueOf(segment.offset()))
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length)
+                .contentLength(end - start + 1)
+                .body(out -> audioService.writeAudio(segment, start, end - start + 1, out));
+    }
+
+    /**
+     * The byte range of a Range header; malformed and multi-range headers are ignored (full response)
+     */
+    private static HttpRange singleRange(String header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(header);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     @GetMapping("/{id}/stream")
     @Operation(summary = "Get streaming URL for track audio")
     @ApiResponses({
@@ -0,0 +1,18 @@
+package com.pss.fullstack.dto;
+
+import com.pss.fullstack.model.ArtistType;
+
+/**
+ * One album/artist link, as loaded for a page of list items
+ */
+public record AlbumArtistRow(Long albumId, Long artistId, String name, ArtistType type) {
+
+    public ArtistSimpleDTO toArtist() {
+        return ArtistSimpleDTO.builder()
+                .id(artistId)
+                .name(name)
+                .type(type)
+                .build();
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.pss.fullstack.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.pss.fullstack.model.Album;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -13,6 +14,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 @Data
+@JsonFilter(FieldSelection.JSON_FILTER)
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -53,6 +55,24 @@ public class AlbumDTO {
                 .build();
     }
 
+    /**
+     * Album without artists, tracks or covers; the track totals come from the stored columns,
+     * so no association is loaded
+     */
+    public static AlbumDTO fromEntityWithoutAssociations(Album album) {
+        return AlbumDTO.builder()
+                .id(album.getId())
+                .title(album.getTitle())
+                .releaseYear(album.getReleaseYear())
+                .description(album.getDescription())
+                .genre(album.getGenre())
+                .trackCount(album.getTrackCount())
+                .totalDuration(album.getTotalDuration())
+                .createdAt(album.getCreatedAt())
+                .updatedAt(album.getUpdatedAt())
+                .build();
+    }
+
     public static AlbumDTO fromEntityWithPresignedUrls(Album album, List<String> presignedUrls) {
         AlbumDTO dto = fromEntity(album);
         dto.setCoverUrls(presignedUrls);
@@ -0,0 +1,49 @@
+package com.pss.fullstack.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Album as shown on list pages: stored track totals and the first cover, no tracks.
+ * Built by a JPQL constructor projection, so no entity is hydrated.
+ */
+@Data
+@JsonFilter(FieldSelection.JSON_FILTER)
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlbumListItemDTO {
+
+    private Long id;
+    private String title;
+    private Integer releaseYear;
+    private String genre;
+    private Integer trackCount;
+    private Integer totalDuration;
+    private String coverUrl;
+    private List<ArtistSimpleDTO> artists;
+
+    @JsonIgnore
+    private String coverKey;
+
+    /**
+     * Constructor used by the list queries in AlbumRepository
+     */
+    public AlbumListItemDTO(Long id, String title, Integer releaseYear, String genre,
+                            Integer trackCount, Integer totalDuration, String coverKey) {
+        this.id = id;
+        this.title = title;
+        this.releaseYear = releaseYear;
+        this.genre = genre;
+        this.trackCount = trackCount;
+        this.totalDuration = totalDuration;
+        this.coverKey = coverKey;
+    }
+
+}
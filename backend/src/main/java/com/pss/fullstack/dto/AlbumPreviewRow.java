@@ -0,0 +1,18 @@
+package com.pss.fullstack.dto;
+
+/**
+ * One of the first albums of an artist, with its first cover key (native projection)
+ */
+public interface AlbumPreviewRow {
+
+    Long getArtistId();
+
+    Long getAlbumId();
+
+    String getTitle();
+
+    Integer getReleaseYear();
+
+    String getCoverKey();
+
+}
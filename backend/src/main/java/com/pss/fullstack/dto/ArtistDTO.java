@@ -1,5 +1,6 @@
 package com.pss.fullstack.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.pss.fullstack.model.Artist;
 import com.pss.fullstack.model.ArtistType;
 import lombok.AllArgsConstructor;
@@ -12,6 +13,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Data
+@JsonFilter(FieldSelection.JSON_FILTER)
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -39,11 +41,29 @@ public class ArtistDTO {
                 .biography(artist.getBiography())
                 .photoKey(artist.getPhotoKey())
                 .active(artist.getActive())
-                .albumCount(artist.getAlbums() != null ? artist.getAlbums().size() : 0)
+                .albumCount(artist.getAlbumCount())
                 .albums(new ArrayList<>())
                 .createdAt(artist.getCreatedAt())
                 .updatedAt(artist.getUpdatedAt())
                 .build();
     }
 
+    /**
+     * Artist without album summaries, so its albums are not loaded (the count is a column)
+     */
+    public static ArtistDTO fromEntityWithoutAlbums(Artist artist) {
+        return ArtistDTO.builder()
+                .id(artist.getId())
+                .name(artist.getName())
+                .type(artist.getType())
+                .country(artist.getCountry())
+                .biography(artist.getBiography())
+                .photoKey(artist.getPhotoKey())
+                .active(artist.getActive())
+                .albumCount(artist.getAlbumCount())
+                .createdAt(artist.getCreatedAt())
+                .updatedAt(artist.getUpdatedAt())
+                .build();
+    }
+
 }
@@ -0,0 +1,21 @@
+package com.pss.fullstack.dto;
+
+import lombok.*;
+
+/**
+ * Totals of an artist over its active albums, as of the last refresh of the artist_stats view
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArtistStatsDTO {
+
+    private Long artistId;
+    private String name;
+    private long albumCount;
+    private long trackCount;
+    private long totalDuration;
+    private Integer latestRelease;
+
+}
@@ -0,0 +1,24 @@
+package com.pss.fullstack.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Totals of the active catalog, as of the last refresh of the catalog_stats view
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogStatsDTO {
+
+    private long artistCount;
+    private long albumCount;
+    private long trackCount;
+    private long totalDuration;
+    private Integer earliestRelease;
+    private Integer latestRelease;
+    private LocalDateTime refreshedAt;
+
+}
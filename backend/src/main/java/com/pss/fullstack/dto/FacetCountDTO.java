@@ -0,0 +1,22 @@
+package com.pss.fullstack.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetCountDTO {
+
+    // null counts the rows without a value
+    private String value;
+    private long count;
+
+    public static FacetCountDTO fromRow(FacetRow row) {
+        return FacetCountDTO.builder()
+                .value(row.value() == null ? null : row.value().toString())
+                .count(row.count())
+                .build();
+    }
+
+}
@@ -0,0 +1,7 @@
+package com.pss.fullstack.dto;
+
+/**
+ * One group of a facet query: a column value (null included) and the number of rows having it
+ */
+public record FacetRow(Object value, Long count) {
+}
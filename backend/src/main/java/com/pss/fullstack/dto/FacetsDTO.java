@@ -0,0 +1,21 @@
+package com.pss.fullstack.dto;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregate counts of a filtered list: the matching total and, per facet name, the count
+ * of each value
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetsDTO {
+
+    private long total;
+    private Map<String, List<FacetCountDTO>> facets;
+
+}
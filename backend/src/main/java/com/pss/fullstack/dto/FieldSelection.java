@@ -0,0 +1,39 @@
+package com.pss.fullstack.dto;
+
+import java.util.Set;
+
+/**
+ * Sparse fieldset ({@code ?fields=}) and association expansion ({@code ?include=}) requested for
+ * an album or artist response. A null set means "all", so clients sending neither parameter get
+ * the full representation. An association is loaded only if it is included and, when a fieldset
+ * is given, its property is one of the fields.
+ */
+public record FieldSelection(Set<String> fields, Set<String> include) {
+
+    /**
+     * Id of the Jackson filter on the DTOs whose properties {@code ?fields=} selects
+     */
+    public static final String JSON_FILTER = "fields";
+
+    public static final FieldSelection ALL = new FieldSelection(null, null);
+
+    public boolean isAll() {
+        return fields == null && include == null;
+    }
+
+    public boolean hasField(String field) {
+        return fields == null || fields.contains(field);
+    }
+
+    public boolean includes(String association, String field) {
+        return (include == null || include.contains(association)) && hasField(field);
+    }
+
+    /**
+     * Whether every included association is one of the given ones
+     */
+    public boolean supports(Set<String> associations) {
+        return include == null || associations.containsAll(include);
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.pss.fullstack.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportErrorDTO {
+
+    private long line;
+    private String title;
+    private String message;
+
+}
@@ -0,0 +1,22 @@
+package com.pss.fullstack.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResultDTO {
+
+    private long rows;
+    private long imported;
+    private long failed;
+    private List<ImportErrorDTO> errors; // the first failures only, see failed for the count
+    private long durationMs;
+
+}
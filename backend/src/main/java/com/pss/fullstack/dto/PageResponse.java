@@ -1,10 +1,12 @@
 package com.pss.fullstack.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
@@ -12,15 +14,21 @@ import java.util.List;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class PageResponse<T> {
 
     private List<T> content;
-    private int page;
+    // Cursor pages are not numbered; cursor and slice pages skip the COUNT query and have no totals
+    private Integer page;
     private int size;
-    private long totalElements;
-    private int totalPages;
+    private Long totalElements;
+    private Integer totalPages;
+    // Slice mode only: periodically refreshed total of the unfiltered list, when known
+    private Long approximateTotal;
     private boolean first;
     private boolean last;
+    // Cursor mode only: pass back as ?cursor= to fetch the next page, null on the last page
+    private String nextCursor;
 
     public static <T> PageResponse<T> from(Page<?> page, List<T> content) {
         return PageResponse.<T>builder()
@@ -34,4 +42,25 @@ public class PageResponse<T> {
                 .build();
     }
 
+    public static <T> PageResponse<T> fromSlice(Slice<?> slice, List<T> content, Long approximateTotal) {
+        return PageResponse.<T>builder()
+                .content(content)
+                .page(slice.getNumber())
+                .size(slice.getSize())
+                .first(slice.isFirst())
+                .last(slice.isLast())
+                .approximateTotal(approximateTotal)
+                .build();
+    }
+
+    public static <T> PageResponse<T> fromCursor(List<T> content, int size, boolean first, String nextCursor) {
+        return PageResponse.<T>builder()
+                .content(content)
+                .size(size)
+                .first(first)
+                .last(nextCursor == null)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
 }
@@ -0,0 +1,38 @@
+package com.pss.fullstack.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SearchHitDTO {
+
+    public enum Type { ALBUM, ARTIST, TRACK }
+
+    private Type type;
+    private Long id;
+    private String title;
+    // Album genre, artist type or, for tracks, the album title
+    private String subtitle;
+    // Tracks only
+    private Long albumId;
+    private double score;
+
+    public static SearchHitDTO from(Type type, SearchHitRow row) {
+        return SearchHitDTO.builder()
+                .type(type)
+                .id(row.getId())
+                .title(row.getTitle())
+                .subtitle(row.getSubtitle())
+                .albumId(row.getAlbumId())
+                .score(row.getScore() == null ? 0 : row.getScore())
+                .build();
+    }
+
+}
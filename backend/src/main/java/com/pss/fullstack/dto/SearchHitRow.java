@@ -0,0 +1,18 @@
+package com.pss.fullstack.dto;
+
+/**
+ * One ranked row of a catalog search query (native projection)
+ */
+public interface SearchHitRow {
+
+    Long getId();
+
+    String getTitle();
+
+    String getSubtitle();
+
+    Long getAlbumId();
+
+    Double getScore();
+
+}
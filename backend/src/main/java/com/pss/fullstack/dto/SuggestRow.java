@@ -0,0 +1,12 @@
+package com.pss.fullstack.dto;
+
+/**
+ * One searchable name or title, as streamed to build the typeahead index
+ */
+public record SuggestRow(Long id, String text, Long albumId) {
+
+    public SuggestRow(Long id, String text) {
+        this(id, text, null);
+    }
+
+}
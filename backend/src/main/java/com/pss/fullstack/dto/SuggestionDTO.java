@@ -0,0 +1,22 @@
+package com.pss.fullstack.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SuggestionDTO {
+
+    private SearchHitDTO.Type type;
+    private Long id;
+    private String text;
+    // Tracks only
+    private Long albumId;
+
+}
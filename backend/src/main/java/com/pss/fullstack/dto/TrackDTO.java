@@ -21,6 +21,7 @@ public class TrackDTO {
     private Long fileSize;
     private String audioKey;
     private String streamUrl; // Presigned URL for streaming
+    private String previewUrl; // Public, cacheable URL of the preview clip
 
     public static TrackDTO fromEntity(Track track) {
         return TrackDTO.builder()
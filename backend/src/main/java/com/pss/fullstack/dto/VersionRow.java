@@ -0,0 +1,9 @@
+package com.pss.fullstack.dto;
+
+/**
+ * Version of a catalog entity plus a version total of the linked entities its DTO embeds
+ * (tracks and artists of an album, albums of an artist). Read by the ETag queries,
+ * which touch no other column.
+ */
+public record VersionRow(Long id, Long version, Long linkedVersions) {
+}
@@ -2,6 +2,8 @@ package com.pss.fullstack.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -9,6 +11,7 @@ import java.util.List;
 import java.util.Set;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "albums")
 @Getter
 @Setter
@@ -17,6 +20,12 @@ import java.util.Set;
 @Builder
 public class Album extends BaseEntity {
 
+    // allocationSize must match the sequence's INCREMENT BY (V20)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "albums_id_seq")
+    @SequenceGenerator(name = "albums_id_seq", sequenceName = "albums_id_seq", allocationSize = 50)
+    private Long id;
+
     @Column(nullable = false)
     private String title;
 
@@ -41,7 +50,11 @@ public class Album extends BaseEntity {
     @Builder.Default
     private Boolean active = true;
 
+    @Version
+    private Long version;
+
     @ManyToMany(fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JoinTable(
             name = "artist_albums",
             joinColumns = @JoinColumn(name = "album_id"),
@@ -51,6 +64,7 @@ public class Album extends BaseEntity {
     private Set<Artist> artists = new HashSet<>();
 
     @ElementCollection
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @CollectionTable(
             name = "album_covers",
             joinColumns = @JoinColumn(name = "album_id")
@@ -60,20 +74,39 @@ public class Album extends BaseEntity {
     private List<String> coverKeys = new ArrayList<>();
 
     @OneToMany(mappedBy = "album", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @OrderBy("trackNumber ASC")
     @Builder.Default
     private List<Track> tracks = new ArrayList<>();
 
     public void addArtist(Artist artist) {
-        this.artists.add(artist);
+        linkArtist(artist);
         artist.getAlbums().add(this);
     }
 
     public void removeArtist(Artist artist) {
-        this.artists.remove(artist);
+        unlinkArtist(artist);
         artist.getAlbums().remove(this);
     }
 
+    /**
+     * Link an artist from the owning side only, leaving the artist's albums unloaded.
+     * The artist's album count is left alone: callers adjust it with
+     * {@code ArtistRepository.adjustAlbumCounts} when the link changed.
+     *
+     * @return whether the artist was not linked yet
+     */
+    public boolean linkArtist(Artist artist) {
+        return this.artists.add(artist);
+    }
+
+    /**
+     * @return whether the artist was linked
+     */
+    public boolean unlinkArtist(Artist artist) {
+        return this.artists.remove(artist);
+    }
+
     public void addCoverKey(String key) {
         this.coverKeys.add(key);
     }
@@ -2,11 +2,14 @@ package com.pss.fullstack.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "artists")
 @Getter
 @Setter
@@ -15,6 +18,12 @@ import java.util.Set;
 @Builder
 public class Artist extends BaseEntity {
 
+    // allocationSize must match the sequence's INCREMENT BY (V20)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "artists_id_seq")
+    @SequenceGenerator(name = "artists_id_seq", sequenceName = "artists_id_seq", allocationSize = 50)
+    private Long id;
+
     @Column(nullable = false)
     private String name;
 
@@ -35,18 +44,28 @@ public class Artist extends BaseEntity {
     @Builder.Default
     private Boolean active = true;
 
+    // Active albums, only written by statements (ArtistRepository.adjustAlbumCounts / recountAlbums), never by
+    // entity updates: a counter change does not bump the version, and an artist edit cannot overwrite it
+    @Column(name = "album_count", nullable = false, updatable = false)
+    @Builder.Default
+    private Integer albumCount = 0;
+
+    @Version
+    private Long version;
+
     @ManyToMany(mappedBy = "artists", fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @Builder.Default
     private Set<Album> albums = new HashSet<>();
 
     public void addAlbum(Album album) {
         this.albums.add(album);
-        album.getArtists().add(this);
+        album.linkArtist(this);
     }
 
     public void removeAlbum(Album album) {
         this.albums.remove(album);
-        album.getArtists().remove(this);
+        album.unlinkArtist(this);
     }
 
 }
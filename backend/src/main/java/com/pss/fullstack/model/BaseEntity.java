@@ -8,15 +8,15 @@ import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
+/**
+ * Audit timestamps. The id is declared by each entity: catalog tables use pooled sequences
+ * (so inserts can be JDBC-batched), the others keep identity columns.
+ */
 @Getter
 @Setter
 @MappedSuperclass
 public abstract class BaseEntity {
 
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
-
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -2,8 +2,11 @@ package com.pss.fullstack.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "tracks")
 @Getter
 @Setter
@@ -12,6 +15,12 @@ import lombok.*;
 @Builder
 public class Track extends BaseEntity {
 
+    // allocationSize must match the sequence's INCREMENT BY (V20)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tracks_id_seq")
+    @SequenceGenerator(name = "tracks_id_seq", sequenceName = "tracks_id_seq", allocationSize = 50)
+    private Long id;
+
     @Column(nullable = false)
     private String title;
 
@@ -34,6 +43,15 @@ public class Track extends BaseEntity {
     @Column(name = "file_size")
     private Long fileSize; // File size in bytes
 
+    @Column(name = "preview_key")
+    private String previewKey; // MinIO key of the preview clip
+
+    @Column(name = "audio_crc32")
+    private Long audioCrc32; // CRC-32 of the audio file, used for STORED ZIP entries
+
+    @Version
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "album_id", nullable = false)
     private Album album;
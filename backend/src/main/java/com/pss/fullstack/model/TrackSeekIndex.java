@@ -0,0 +1,50 @@
+package com.pss.fullstack.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+
+/**
+ * Seek table of a compressed track: the byte offset of the frame playing at every
+ * {@code intervalMs} step, so a time position maps to a storage offset in O(1).
+ * Kept out of the tracks table so track listings never load it.
+ */
+@Entity
+@Table(name = "track_seek_indexes")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TrackSeekIndex {
+
+    @Id
+    @Column(name = "track_id")
+    private Long trackId;
+
+    @Column(name = "interval_ms", nullable = false)
+    private Integer intervalMs;
+
+    @Column(name = "duration_ms", nullable = false)
+    private Long durationMs;
+
+    @Column(nullable = false)
+    private byte[] offsets; // Big-endian uint32 per interval
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Byte offset of the frame playing at the given position
+     */
+    public long offsetAt(long millis) {
+        int entries = offsets.length / Integer.BYTES;
+        int entry = (int) Math.min(millis / intervalMs, entries - 1);
+        return Integer.toUnsignedLong(ByteBuffer.wrap(offsets).getInt(entry * Integer.BYTES));
+    }
+
+}
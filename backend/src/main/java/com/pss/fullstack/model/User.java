@@ -18,6 +18,10 @@ import java.util.List;
 @Builder
 public class User extends BaseEntity implements UserDetails {
 
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
     @Column(nullable = false, unique = true)
     private String username;
 
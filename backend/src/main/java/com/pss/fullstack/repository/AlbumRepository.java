@@ -1,41 +1,168 @@
 package com.pss.fullstack.repository;
 
+import com.pss.fullstack.dto.AlbumArtistRow;
+import com.pss.fullstack.dto.AlbumListItemDTO;
+import com.pss.fullstack.dto.FacetRow;
+import com.pss.fullstack.dto.SearchHitRow;
+import com.pss.fullstack.dto.SuggestRow;
+import com.pss.fullstack.dto.VersionRow;
 import com.pss.fullstack.model.Album;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface AlbumRepository extends JpaRepository<Album, Long> {
+public interface AlbumRepository extends JpaRepository<Album, Long>, AlbumRepositoryCustom {
 
-    Page<Album> findByTitleContainingIgnoreCase(String title, Pageable pageable);
+    String LIST_ITEM = "SELECT new com.pss.fullstack.dto.AlbumListItemDTO(" +
+            "a.id, a.title, a.releaseYear, a.genre, a.trackCount, a.totalDuration, " +
+            "(SELECT MIN(c) FROM a.coverKeys c)) ";
 
-    Page<Album> findByActiveTrue(Pageable pageable);
+    String FILTERS = "WHERE (:title IS NULL OR LOWER(a.title) LIKE LOWER(CONCAT('%', :title, '%'))) AND " +
+            "(:year IS NULL OR a.releaseYear = :year) AND " +
+            "a.active = true";
 
-    Page<Album> findByTitleContainingIgnoreCaseAndActiveTrue(String title, Pageable pageable);
+    // List items embed their artists, so a row carries the version total of the linked artists
+    String VERSION_ROW = "SELECT new com.pss.fullstack.dto.VersionRow(a.id, a.version, " +
+            "(SELECT COALESCE(SUM(ar.version), 0L) FROM a.artists ar)) ";
 
-    @Query("SELECT a FROM Album a JOIN a.artists ar WHERE ar.id = :artistId AND a.active = true")
-    Page<Album> findByArtistId(@Param("artistId") Long artistId, Pageable pageable);
+    @Query("SELECT a FROM Album a WHERE LOWER(a.title) LIKE LOWER(CONCAT('%', :title, '%'))")
+    Page<Album> findByTitleContainingIgnoreCase(@Param("title") String title, Pageable pageable);
+
+    @Query("SELECT a FROM Album a WHERE LOWER(a.title) LIKE LOWER(CONCAT('%', :title, '%')) AND a.active = true")
+    Page<Album> findByTitleContainingIgnoreCaseAndActiveTrue(@Param("title") String title, Pageable pageable);
 
     @Query("SELECT a FROM Album a JOIN a.artists ar WHERE ar.id = :artistId AND a.active = true")
     List<Album> findAllByArtistId(@Param("artistId") Long artistId);
 
-    @Query("SELECT a FROM Album a WHERE " +
-            "(:title IS NULL OR LOWER(a.title) LIKE LOWER(CONCAT('%', :title, '%'))) AND " +
-            "(:year IS NULL OR a.releaseYear = :year) AND " +
-            "a.active = true")
-    Page<Album> findByFilters(
+    @Query(value = LIST_ITEM + "FROM Album a WHERE a.active = true",
+            countQuery = "SELECT COUNT(a) FROM Album a WHERE a.active = true")
+    Page<AlbumListItemDTO> findListItems(Pageable pageable);
+
+    @Query(value = LIST_ITEM + "FROM Album a " + FILTERS,
+            countQuery = "SELECT COUNT(a) FROM Album a " + FILTERS)
+    Page<AlbumListItemDTO> findListItemsByFilters(
+            @Param("title") String title,
+            @Param("year") Integer year,
+            Pageable pageable
+    );
+
+    @Query(value = LIST_ITEM + "FROM Album a JOIN a.artists ar WHERE ar.id = :artistId AND a.active = true",
+            countQuery = "SELECT COUNT(a) FROM Album a JOIN a.artists ar WHERE ar.id = :artistId AND a.active = true")
+    Page<AlbumListItemDTO> findListItemsByArtistId(@Param("artistId") Long artistId, Pageable pageable);
+
+    // Slice variants: fetch one extra row to know whether there is a next page, no count query
+
+    @Query(LIST_ITEM + "FROM Album a WHERE a.active = true")
+    Slice<AlbumListItemDTO> sliceListItems(Pageable pageable);
+
+    @Query(LIST_ITEM + "FROM Album a " + FILTERS)
+    Slice<AlbumListItemDTO> sliceListItemsByFilters(
             @Param("title") String title,
             @Param("year") Integer year,
             Pageable pageable
     );
 
+    @Query(LIST_ITEM + "FROM Album a JOIN a.artists ar WHERE ar.id = :artistId AND a.active = true")
+    Slice<AlbumListItemDTO> sliceListItemsByArtistId(@Param("artistId") Long artistId, Pageable pageable);
+
+    // Version-only reads behind the ETags: no DTO assembly, no covers or artist rows
+
+    /**
+     * The detail embeds tracks and artists: their version totals are added (plus the track count,
+     * so that removing a track changes the total even though versions only grow)
+     */
+    @Query("SELECT new com.pss.fullstack.dto.VersionRow(a.id, a.version, " +
+            "(SELECT COALESCE(SUM(t.version), 0L) + COUNT(t) FROM Track t WHERE t.album = a) + " +
+            "(SELECT COALESCE(SUM(ar.version), 0L) FROM a.artists ar)) " +
+            "FROM Album a WHERE a.id = :id")
+    Optional<VersionRow> findVersionRow(@Param("id") Long id);
+
+    @Query(value = VERSION_ROW + "FROM Album a " + FILTERS,
+            countQuery = "SELECT COUNT(a) FROM Album a " + FILTERS)
+    Page<VersionRow> findListVersions(
+            @Param("title") String title,
+            @Param("year") Integer year,
+            Pageable pageable
+    );
+
+    @Query(VERSION_ROW + "FROM Album a " + FILTERS)
+    Slice<VersionRow> sliceListVersions(
+            @Param("title") String title,
+            @Param("year") Integer year,
+            Pageable pageable
+    );
+
+    @Query("SELECT new com.pss.fullstack.dto.AlbumArtistRow(a.id, ar.id, ar.name, ar.type) " +
+            "FROM Album a JOIN a.artists ar WHERE a.id IN :albumIds ORDER BY ar.name")
+    List<AlbumArtistRow> findArtistRowsByAlbumIds(@Param("albumIds") Collection<Long> albumIds);
+
     @Query("SELECT COUNT(a) FROM Album a JOIN a.artists ar WHERE ar.id = :artistId AND a.active = true")
     long countByArtistId(@Param("artistId") Long artistId);
 
+    long countByActiveTrue();
+
+    @Query("SELECT a.id FROM Album a WHERE a.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Bump the versions of albums whose links were written in bulk (the owning side of
+     * artist_albums), so their ETags and optimistic locks see the change
+     */
+    @Modifying
+    @Query("UPDATE Album a SET a.version = a.version + 1 WHERE a.id IN :ids")
+    int incrementVersions(@Param("ids") Collection<Long> ids);
+
+    // Facets of the filtered list, one grouped query each
+    @Query("SELECT new com.pss.fullstack.dto.FacetRow(a.genre, COUNT(a)) FROM Album a " + FILTERS +
+            " GROUP BY a.genre ORDER BY COUNT(a) DESC, a.genre")
+    List<FacetRow> countByGenre(@Param("title") String title, @Param("year") Integer year);
+
+    @Query("SELECT new com.pss.fullstack.dto.FacetRow(a.releaseYear, COUNT(a)) FROM Album a " + FILTERS +
+            " GROUP BY a.releaseYear ORDER BY a.releaseYear DESC NULLS LAST")
+    List<FacetRow> countByReleaseYear(@Param("title") String title, @Param("year") Integer year);
+
+    @Query("SELECT new com.pss.fullstack.dto.SuggestRow(a.id, a.title) FROM Album a WHERE a.active = true")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<SuggestRow> streamSuggestRows();
+
+    /**
+     * Forward-only cursor over the active albums for the catalog export: read-only entities,
+     * kept out of the second-level cache
+     */
+    @Query("SELECT a FROM Album a WHERE a.active = true ORDER BY a.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    Stream<Album> streamActiveForExport();
+
+    /**
+     * Ranked album matches: weighted full-text on title and genre, plus trigram substring and
+     * word similarity on the title (typo tolerance). All three predicates are served by GIN indexes.
+     */
+    @Query(nativeQuery = true, value = "SELECT a.id AS id, a.title AS title, a.genre AS subtitle, " +
+            "CAST(NULL AS BIGINT) AS \"albumId\", " +
+            "CAST(GREATEST(ts_rank(a.search_vector, websearch_to_tsquery('simple', :q)), " +
+            "word_similarity(LOWER(:q), LOWER(a.title))) AS DOUBLE PRECISION) AS score " +
+            "FROM albums a " +
+            "WHERE a.active = true AND (a.search_vector @@ websearch_to_tsquery('simple', :q) " +
+            "OR LOWER(a.title) LIKE CONCAT('%', LOWER(:q), '%') OR LOWER(:q) <% LOWER(a.title)) " +
+            "ORDER BY score DESC, a.id LIMIT :limit")
+    List<SearchHitRow> search(@Param("q") String query, @Param("limit") int limit);
+
 }
@@ -0,0 +1,16 @@
+package com.pss.fullstack.repository;
+
+import com.pss.fullstack.dto.AlbumListItemDTO;
+
+import java.util.List;
+
+public interface AlbumRepositoryCustom {
+
+    /**
+     * Keyset page of active albums ordered by (title, id), starting after the given position.
+     * Null filters and a null position are ignored.
+     */
+    List<AlbumListItemDTO> findListItemsAfter(String title, Integer year, Long artistId,
+                                              String afterTitle, Long afterId, boolean descending, int limit);
+
+}
@@ -0,0 +1,59 @@
+package com.pss.fullstack.repository;
+
+import com.pss.fullstack.dto.AlbumListItemDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.List;
+
+public class AlbumRepositoryCustomImpl implements AlbumRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<AlbumListItemDTO> findListItemsAfter(String title, Integer year, Long artistId,
+                                                     String afterTitle, Long afterId, boolean descending, int limit) {
+        StringBuilder jpql = new StringBuilder(AlbumRepository.LIST_ITEM).append("FROM Album a ");
+        if (artistId != null) {
+            jpql.append("JOIN a.artists ar ");
+        }
+        jpql.append("WHERE a.active = true");
+        if (artistId != null) {
+            jpql.append(" AND ar.id = :artistId");
+        }
+        if (title != null) {
+            jpql.append(" AND LOWER(a.title) LIKE LOWER(CONCAT('%', :title, '%'))");
+        }
+        if (year != null) {
+            jpql.append(" AND a.releaseYear = :year");
+        }
+        if (afterId != null) {
+            // Row comparison lets the (active, title, id) index seek straight to the position
+            jpql.append(descending
+                    ? " AND (a.title, a.id) < (:afterTitle, :afterId)"
+                    : " AND (a.title, a.id) > (:afterTitle, :afterId)");
+        }
+        String direction = descending ? " DESC" : " ASC";
+        jpql.append(" ORDER BY a.title").append(direction).append(", a.id").append(direction);
+
+        TypedQuery<AlbumListItemDTO> query = entityManager.createQuery(jpql.toString(), AlbumListItemDTO.class)
+                .setMaxResults(limit);
+        if (artistId != null) {
+            query.setParameter("artistId", artistId);
+        }
+        if (title != null) {
+            query.setParameter("title", title);
+        }
+        if (year != null) {
+            query.setParameter("year", year);
+        }
+        if (afterId != null) {
+            query.setParameter("afterTitle", afterTitle);
+            query.setParameter("afterId", afterId);
+        }
+        return query.getResultList();
+    }
+
+}
@@ -1,34 +1,153 @@
 package com.pss.fullstack.repository;
 
+import com.pss.fullstack.dto.AlbumPreviewRow;
+import com.pss.fullstack.dto.ArtistSimpleDTO;
+import com.pss.fullstack.dto.FacetRow;
+import com.pss.fullstack.dto.SearchHitRow;
+import com.pss.fullstack.dto.SuggestRow;
+import com.pss.fullstack.dto.VersionRow;
 import com.pss.fullstack.model.Artist;
 import com.pss.fullstack.model.ArtistType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
-public interface ArtistRepository extends JpaRepository<Artist, Long> {
+public interface ArtistRepository extends JpaRepository<Artist, Long>, ArtistRepositoryCustom {
 
-    Page<Artist> findByNameContainingIgnoreCaseAndActiveTrue(String name, Pageable pageable);
+    // Name filters are written as LOWER(name) LIKE so they hit the idx_artists_name_trgm index
+    // (derived ...ContainingIgnoreCase queries compare UPPER(name), which no index covers)
+    String NAME_CONTAINS = "LOWER(ar.name) LIKE LOWER(CONCAT('%', :name, '%'))";
+
+    // Artist DTOs embed album summaries, so a row carries the version total (and count) of the albums
+    String VERSION_ROW = "SELECT new com.pss.fullstack.dto.VersionRow(ar.id, ar.version, " +
+            "(SELECT COALESCE(SUM(al.version), 0L) + COUNT(al) FROM ar.albums al)) ";
+
+    // Optional filters of the facet queries
+    String FILTERS = "WHERE ar.active = true AND (:name IS NULL OR " + NAME_CONTAINS + ") " +
+            "AND (:type IS NULL OR ar.type = :type)";
+
+    @Query(VERSION_ROW + "FROM Artist ar WHERE ar.id = :id")
+    Optional<VersionRow> findVersionRow(@Param("id") Long id);
+
+    // The album_count column recomputed from artist_albums
+    String ACTIVE_ALBUM_COUNT = "(SELECT CAST(COUNT(al) AS Integer) FROM ar.albums al WHERE al.active = true)";
+
+    @Query("SELECT ar.id FROM Artist ar WHERE ar.albumCount <> " + ACTIVE_ALBUM_COUNT)
+    List<Long> findIdsWithStaleAlbumCount();
+
+    @Modifying
+    @Query("UPDATE Artist ar SET ar.albumCount = " + ACTIVE_ALBUM_COUNT + " WHERE ar.id IN :ids")
+    int recountAlbums(@Param("ids") Collection<Long> ids);
+
+    // Applied in place rather than through the entity, so it bumps no version: concurrent album
+    // writes on one artist wait on the row lock instead of failing the optimistic lock
+    @Modifying
+    @Query("UPDATE Artist ar SET ar.albumCount = CASE WHEN ar.albumCount + :delta < 0 THEN 0 " +
+            "ELSE ar.albumCount + :delta END WHERE ar.id IN :ids")
+    int adjustAlbumCounts(@Param("ids") Collection<Long> ids, @Param("delta") int delta);
+
+    @Query("SELECT new com.pss.fullstack.dto.FacetRow(ar.type, COUNT(ar)) FROM Artist ar " + FILTERS +
+            " GROUP BY ar.type ORDER BY COUNT(ar) DESC, ar.type")
+    List<FacetRow> countByType(@Param("name") String name, @Param("type") ArtistType type);
+
+    @Query("SELECT new com.pss.fullstack.dto.FacetRow(ar.country, COUNT(ar)) FROM Artist ar " + FILTERS +
+            " GROUP BY ar.country ORDER BY COUNT(ar) DESC, ar.country")
+    List<FacetRow> countByCountry(@Param("name") String name, @Param("type") ArtistType type);
+
+    /**
+     * Ids of the albums linked to the artist, read from the link table alone
+     */
+    @Query(value = "SELECT album_id FROM artist_albums WHERE artist_id = :artistId", nativeQuery = true)
+    Set<Long> findAlbumIds(@Param("artistId") Long artistId);
+
+    /**
+     * Up to {@code limit} active albums per artist, newest first, ranked per artist in one pass
+     * with the first cover key of each (the same MIN as the album list)
+     */
+    @Query(nativeQuery = true, value = "SELECT p.artist_id AS \"artistId\", p.album_id AS \"albumId\", " +
+            "p.title AS title, p.release_year AS \"releaseYear\", p.cover_key AS \"coverKey\" " +
+            "FROM (SELECT aa.artist_id, al.id AS album_id, al.title, al.release_year, " +
+            "(SELECT MIN(c.cover_key) FROM album_covers c WHERE c.album_id = al.id) AS cover_key, " +
+            "ROW_NUMBER() OVER (PARTITION BY aa.artist_id " +
+            "ORDER BY al.release_year DESC NULLS LAST, al.id DESC) AS rn " +
+            "FROM artist_albums aa JOIN albums al ON al.id = aa.album_id " +
+            "WHERE aa.artist_id IN (:artistIds) AND al.active = true) p " +
+            "WHERE p.rn <= :limit ORDER BY p.artist_id, p.rn")
+    List<AlbumPreviewRow> findAlbumPreviews(@Param("artistIds") Collection<Long> artistIds, @Param("limit") int limit);
+
+    @Query("SELECT ar FROM Artist ar WHERE " + NAME_CONTAINS + " AND ar.active = true")
+    Page<Artist> findByNameContainingIgnoreCaseAndActiveTrue(@Param("name") String name, Pageable pageable);
 
     Page<Artist> findByTypeAndActiveTrue(ArtistType type, Pageable pageable);
 
-    Page<Artist> findByNameContainingIgnoreCaseAndTypeAndActiveTrue(String name, ArtistType type, Pageable pageable);
+    @Query("SELECT ar FROM Artist ar WHERE " + NAME_CONTAINS + " AND ar.type = :type AND ar.active = true")
+    Page<Artist> findByNameContainingIgnoreCaseAndTypeAndActiveTrue(
+            @Param("name") String name,
+            @Param("type") ArtistType type,
+            Pageable pageable
+    );
 
     // Removed complex JPQL query due to PostgreSQL bytea/LOWER function incompatibility
     // Using specific finder methods instead in the service layer
 
     Page<Artist> findByActiveTrue(Pageable pageable);
 
-    List<Artist> findByNameContainingIgnoreCaseOrderByNameAsc(String name);
+    // Slice variants: fetch one extra row to know whether there is a next page, no count query
+
+    @Query("SELECT ar FROM Artist ar WHERE " + NAME_CONTAINS + " AND ar.active = true")
+    Slice<Artist> findSliceByNameContainingIgnoreCaseAndActiveTrue(@Param("name") String name, Pageable pageable);
+
+    Slice<Artist> findSliceByTypeAndActiveTrue(ArtistType type, Pageable pageable);
+
+    @Query("SELECT ar FROM Artist ar WHERE " + NAME_CONTAINS + " AND ar.type = :type AND ar.active = true")
+    Slice<Artist> findSliceByNameContainingIgnoreCaseAndTypeAndActiveTrue(
+            @Param("name") String name,
+            @Param("type") ArtistType type,
+            Pageable pageable
+    );
 
-    List<Artist> findByNameContainingIgnoreCaseOrderByNameDesc(String name);
+    Slice<Artist> findSliceByActiveTrue(Pageable pageable);
+
+    long countByActiveTrue();
+
+    // Name search: active artists only, bounded and ordered by the Pageable, no entities loaded
+    @Query("SELECT new com.pss.fullstack.dto.ArtistSimpleDTO(ar.id, ar.name, ar.type) FROM Artist ar " +
+            "WHERE " + NAME_CONTAINS + " AND ar.active = true")
+    List<ArtistSimpleDTO> searchActiveByName(@Param("name") String name, Pageable pageable);
+
+    /**
+     * Ranked artist matches: full-text on the name, plus trigram substring and word similarity
+     * (typo tolerance). All three predicates are served by GIN indexes.
+     */
+    @Query(nativeQuery = true, value = "SELECT ar.id AS id, ar.name AS title, ar.type AS subtitle, " +
+            "CAST(NULL AS BIGINT) AS \"albumId\", " +
+            "CAST(GREATEST(ts_rank(ar.search_vector, websearch_to_tsquery('simple', :q)), " +
+            "word_similarity(LOWER(:q), LOWER(ar.name))) AS DOUBLE PRECISION) AS score " +
+            "FROM artists ar " +
+            "WHERE ar.active = true AND (ar.search_vector @@ websearch_to_tsquery('simple', :q) " +
+            "OR LOWER(ar.name) LIKE CONCAT('%', LOWER(:q), '%') OR LOWER(:q) <% LOWER(ar.name)) " +
+            "ORDER BY score DESC, ar.id LIMIT :limit")
+    List<SearchHitRow> search(@Param("q") String query, @Param("limit") int limit);
 
     boolean existsByNameIgnoreCase(String name);
 
+    @Query("SELECT new com.pss.fullstack.dto.SuggestRow(ar.id, ar.name) FROM Artist ar WHERE ar.active = true")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<SuggestRow> streamSuggestRows();
+
 }
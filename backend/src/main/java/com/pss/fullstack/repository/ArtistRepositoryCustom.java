@@ -0,0 +1,44 @@
+package com.pss.fullstack.repository;
+
+import com.pss.fullstack.dto.VersionRow;
+import com.pss.fullstack.model.Artist;
+import com.pss.fullstack.model.ArtistType;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ArtistRepositoryCustom {
+
+    /**
+     * Keyset page of active artists ordered by (name, id), starting after the given position.
+     * Null filters and a null position are ignored.
+     */
+    List<Artist> findActiveAfter(String name, ArtistType type,
+                                 String afterName, Long afterId, boolean descending, int limit);
+
+    /**
+     * Version rows of an offset page of active artists, in the page's sort. A {@code Page} with
+     * the total when {@code withTotal}, otherwise a {@code Slice}. Null filters are ignored.
+     */
+    Slice<VersionRow> findListVersions(String name, ArtistType type, Pageable pageable, boolean withTotal);
+
+    /**
+     * Link the artist to the albums in one statement; pairs that already exist are skipped.
+     * Writes artist_albums directly, so the album count, the album versions and loaded collections
+     * are the caller's.
+     *
+     * @return the number of links inserted
+     */
+    int linkAlbums(Long artistId, Collection<Long> albumIds);
+
+    /**
+     * Unlink the artist from the albums in one statement, like {@link #linkAlbums}
+     *
+     * @return the number of links deleted
+     */
+    int unlinkAlbums(Long artistId, Collection<Long> albumIds);
+
+}
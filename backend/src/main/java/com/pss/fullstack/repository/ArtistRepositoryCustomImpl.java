@@ -0,0 +1,124 @@
+package com.pss.fullstack.repository;
+
+import com.pss.fullstack.dto.VersionRow;
+import com.pss.fullstack.model.Artist;
+import com.pss.fullstack.model.ArtistType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.query.NativeQuery;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.Collection;
+import java.util.List;
+
+public class ArtistRepositoryCustomImpl implements ArtistRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Artist> findActiveAfter(String name, ArtistType type,
+                                        String afterName, Long afterId, boolean descending, int limit) {
+        StringBuilder jpql = new StringBuilder("SELECT ar FROM Artist ar WHERE ar.active = true");
+        if (name != null) {
+            jpql.append(" AND LOWER(ar.name) LIKE LOWER(CONCAT('%', :name, '%'))");
+        }
+        if (type != null) {
+            jpql.append(" AND ar.type = :type");
+        }
+        if (afterId != null) {
+            // Row comparison lets the (active, name, id) index seek straight to the position
+            jpql.append(descending
+                    ? " AND (ar.name, ar.id) < (:afterName, :afterId)"
+                    : " AND (ar.name, ar.id) > (:afterName, :afterId)");
+        }
+        String direction = descending ? " DESC" : " ASC";
+        jpql.append(" ORDER BY ar.name").append(direction).append(", ar.id").append(direction);
+
+        TypedQuery<Artist> query = entityManager.createQuery(jpql.toString(), Artist.class)
+                .setMaxResults(limit);
+        if (name != null) {
+            query.setParameter("name", name);
+        }
+        if (type != null) {
+            query.setParameter("type", type);
+        }
+        if (afterId != null) {
+            query.setParameter("afterName", afterName);
+            query.setParameter("afterId", afterId);
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    public Slice<VersionRow> findListVersions(String name, ArtistType type, Pageable pageable, boolean withTotal) {
+        // Built like the list queries; conditions are appended only for the filters given
+        StringBuilder where = new StringBuilder(" FROM Artist ar WHERE ar.active = true");
+        if (name != null) {
+            where.append(" AND ").append(ArtistRepository.NAME_CONTAINS);
+        }
+        if (type != null) {
+            where.append(" AND ar.type = :type");
+        }
+
+        String jpql = QueryUtils.applySorting(ArtistRepository.VERSION_ROW + where, pageable.getSort(), "ar");
+        TypedQuery<VersionRow> query = entityManager.createQuery(jpql, VersionRow.class)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1);
+        TypedQuery<Long> count = withTotal
+                ? entityManager.createQuery("SELECT COUNT(ar)" + where, Long.class)
+                : null;
+        if (name != null) {
+            query.setParameter("name", name);
+            if (count != null) {
+                count.setParameter("name", name);
+            }
+        }
+        if (type != null) {
+            query.setParameter("type", type);
+            if (count != null) {
+                count.setParameter("type", type);
+            }
+        }
+
+        List<VersionRow> rows = query.getResultList();
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        if (hasNext) {
+            rows = rows.subList(0, pageable.getPageSize());
+        }
+        if (count != null) {
+            return new PageImpl<>(rows, pageable, count.getSingleResult());
+        }
+        return new SliceImpl<>(rows, pageable, hasNext);
+    }
+
+    @Override
+    public int linkAlbums(Long artistId, Collection<Long> albumIds) {
+        return executeOnLinks("INSERT INTO artist_albums (artist_id, album_id) " +
+                "SELECT :artistId, a.id FROM albums a WHERE a.id IN (:albumIds) " +
+                "AND NOT EXISTS (SELECT 1 FROM artist_albums aa WHERE aa.artist_id = :artistId AND aa.album_id = a.id)",
+                artistId, albumIds);
+    }
+
+    @Override
+    public int unlinkAlbums(Long artistId, Collection<Long> albumIds) {
+        return executeOnLinks("DELETE FROM artist_albums WHERE artist_id = :artistId AND album_id IN (:albumIds)",
+                artistId, albumIds);
+    }
+
+    private int executeOnLinks(String sql, Long artistId, Collection<Long> albumIds) {
+        // Naming the table keeps the second-level cache invalidation to the two link collections
+        return entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace("artist_albums")
+                .setParameter("artistId", artistId)
+                .setParameterList("albumIds", albumIds)
+                .executeUpdate();
+    }
+
+}
@@ -1,9 +1,12 @@
 package com.pss.fullstack.repository;
 
 import com.pss.fullstack.model.Regional;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -12,6 +15,10 @@ import java.util.List;
 @Repository
 public interface RegionalRepository extends JpaRepository<Regional, Integer> {
 
+    /**
+     * Served from the query cache; the bulk updates below invalidate it along with the Regional region.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Regional> findByAtivoTrue();
 
     List<Regional> findByAtivoFalse();
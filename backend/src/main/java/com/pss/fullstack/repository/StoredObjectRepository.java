@@ -0,0 +1,62 @@
+package com.pss.fullstack.repository;
+
+import com.pss.fullstack.model.StoredObject;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface StoredObjectRepository extends JpaRepository<StoredObject, Long> {
+
+    Optional<StoredObject> findByBucketAndObjectKey(String bucket, String objectKey);
+
+    boolean existsByBucketAndObjectKey(String bucket, String objectKey);
+
+    // Takes a reference on an existing object; committed on its own so a failed caller never blocks releases
+    // (StorageService releases it again if the caller rolls back)
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query("UPDATE StoredObject s SET s.refCount = s.refCount + 1 " +
+            "WHERE s.bucket = :bucket AND s.objectKey = :objectKey AND s.refCount > 0")
+    int incrementRefCount(@Param("bucket") String bucket, @Param("objectKey") String objectKey);
+
+    // Registers a freshly written object, or takes a reference if a concurrent upload registered it first.
+    // Naming the table keeps the native statement from invalidating every second-level cache region.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "storage_objects"))
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = "INSERT INTO storage_objects (bucket, object_key, sha256, size, content_type, ref_count, created_at) " +
+            "VALUES (:bucket, :objectKey, :sha256, :size, :contentType, 1, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (bucket, object_key) DO UPDATE " +
+            "SET ref_count = storage_objects.ref_count + 1, updated_at = CURRENT_TIMESTAMP",
+            nativeQuery = true)
+    void insertOrIncrement(
+            @Param("bucket") String bucket,
+            @Param("objectKey") String objectKey,
+            @Param("sha256") String sha256,
+            @Param("size") long size,
+            @Param("contentType") String contentType
+    );
+
+    // Row stays locked until the caller's transaction ends, so concurrent uploads wait for the release
+    @Modifying
+    @Transactional
+    @Query("UPDATE StoredObject s SET s.refCount = s.refCount - 1 " +
+            "WHERE s.bucket = :bucket AND s.objectKey = :objectKey AND s.refCount > 0")
+    int decrementRefCount(@Param("bucket") String bucket, @Param("objectKey") String objectKey);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM StoredObject s WHERE s.bucket = :bucket AND s.objectKey = :objectKey AND s.refCount <= 0")
+    int deleteIfUnreferenced(@Param("bucket") String bucket, @Param("objectKey") String objectKey);
+
+}
@@ -1,10 +1,18 @@
 package com.pss.fullstack.repository;
 
+import com.pss.fullstack.dto.SearchHitRow;
+import com.pss.fullstack.dto.SuggestRow;
 import com.pss.fullstack.model.Track;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface TrackRepository extends JpaRepository<Track, Long> {
@@ -13,4 +21,27 @@ public interface TrackRepository extends JpaRepository<Track, Long> {
 
     void deleteByAlbumId(Long albumId);
 
+    boolean existsByAudioKeyIsNotNull();
+
+    @Query("SELECT t FROM Track t JOIN FETCH t.album WHERE t.audioKey IS NULL ORDER BY t.album.id, t.trackNumber")
+    List<Track> findAllWithoutAudio();
+
+    @Query("SELECT new com.pss.fullstack.dto.SuggestRow(t.id, t.title, t.album.id) FROM Track t WHERE t.album.active = true")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<SuggestRow> streamSuggestRows();
+
+    /**
+     * Ranked track title matches within active albums: full-text, plus trigram substring and
+     * word similarity (typo tolerance). All three predicates are served by GIN indexes.
+     */
+    @Query(nativeQuery = true, value = "SELECT t.id AS id, t.title AS title, a.title AS subtitle, " +
+            "t.album_id AS \"albumId\", " +
+            "CAST(GREATEST(ts_rank(t.search_vector, websearch_to_tsquery('simple', :q)), " +
+            "word_similarity(LOWER(:q), LOWER(t.title))) AS DOUBLE PRECISION) AS score " +
+            "FROM tracks t JOIN albums a ON a.id = t.album_id " +
+            "WHERE a.active = true AND (t.search_vector @@ websearch_to_tsquery('simple', :q) " +
+            "OR LOWER(t.title) LIKE CONCAT('%', LOWER(:q), '%') OR LOWER(:q) <% LOWER(t.title)) " +
+            "ORDER BY score DESC, t.id LIMIT :limit")
+    List<SearchHitRow> search(@Param("q") String query, @Param("limit") int limit);
+
 }
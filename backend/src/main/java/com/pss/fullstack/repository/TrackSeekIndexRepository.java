@@ -0,0 +1,33 @@
+package com.pss.fullstack.repository;
+
+import com.pss.fullstack.model.TrackSeekIndex;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface TrackSeekIndexRepository extends JpaRepository<TrackSeekIndex, Long> {
+
+    // Stores an index built on first seek; a concurrent request that stored one first wins, and 0 is returned.
+    // Naming the table keeps the native statement from invalidating every second-level cache region.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "track_seek_indexes"))
+    @Transactional
+    @Query(value = "INSERT INTO track_seek_indexes (track_id, interval_ms, duration_ms, offsets, created_at) " +
+            "VALUES (:trackId, :intervalMs, :durationMs, :offsets, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (track_id) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(
+            @Param("trackId") Long trackId,
+            @Param("intervalMs") Integer intervalMs,
+            @Param("durationMs") Long durationMs,
+            @Param("offsets") byte[] offsets
+    );
+
+}
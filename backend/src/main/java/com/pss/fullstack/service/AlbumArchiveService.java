@@ -0,0 +1,356 @@
+package com.pss.fullstack.service;
+
+import com.pss.fullstack.exception.BusinessException;
+import com.pss.fullstack.exception.ResourceNotFoundException;
+import com.pss.fullstack.model.Album;
+import com.pss.fullstack.model.Track;
+import com.pss.fullstack.repository.AlbumRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * Streams an album's audio as a ZIP archive of STORED entries.
+ * The layout only depends on the tracks' audio metadata (name, size, CRC-32), so every
+ * byte offset is known before anything is read from storage: the archive has a fixed
+ * Content-Length and any byte range can be regenerated, which is what makes resuming work.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class AlbumArchiveService {
+
+    private static final int LOCAL_HEADER_SIZE = 30;
+    private static final int CENTRAL_HEADER_SIZE = 46;
+    private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+    private static final int ZIP_VERSION = 10;           // 1.0: STORED entries only
+    private static final int UTF8_FLAG = 0x0800;          // entry names are UTF-8
+    private static final int DOS_DATE_1980_01_01 = 0x21;  // fixed timestamp keeps the layout deterministic
+    private static final long MAX_ZIP_OFFSET = 0xFFFFFFFFL;
+    private static final int MAX_ZIP_ENTRIES = 0xFFFF;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final AlbumRepository albumRepository;
+    private final StorageService storageService;
+
+    @Value("${minio.bucket.audio:audio-tracks}")
+    private String audioBucket;
+
+    @Value("${audio.download.prefetch-threads:4}")
+    private int prefetchThreads;
+
+    private ExecutorService prefetchExecutor;
+
+    @PostConstruct
+    void startPrefetchPool() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        prefetchExecutor = Executors.newFixedThreadPool(prefetchThreads, runnable -> {
+            Thread thread = new Thread(runnable, "album-download-prefetch-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stopPrefetchPool() {
+        prefetchExecutor.shutdownNow();
+    }
+
+    /**
+     * Compute the archive layout for an album. Tracks uploaded before checksums were
+     * recorded are read once to fill in their CRC-32 and size.
+     */
+    @Transactional
+    public AlbumArchive buildArchive(Long albumId) {
+        Album album = albumRepository.findById(albumId)
+                .orElseThrow(() -> new ResourceNotFoundException("Album", albumId));
+
+        String folder = sanitize(album.getTitle());
+        List<ArchiveEntry> entries = new ArrayList<>();
+        long offset = 0;
+
+        for (Track track : album.getTracks()) {
+            if (track.getAudioKey() == null) {
+                continue;
+            }
+            if (track.getAudioCrc32() == null || track.getFileSize() == null) {
+                backfillChecksum(track);
+            }
+
+            byte[] name = String.format("%s/%02d - %s.%s", folder, track.getTrackNumber(),
+                    sanitize(track.getTitle()), getExtension(track)).getBytes(StandardCharsets.UTF_8);
+
+            entries.add(new ArchiveEntry(name, track.getAudioKey(), track.getFileSize(), track.getAudioCrc32(), offset));
+            offset += LOCAL_HEADER_SIZE + name.length + track.getFileSize();
+        }
+
+        if (entries.isEmpty()) {
+            throw new BusinessException("Album has no audio files to download");
+        }
+
+        long centralDirectorySize = entries.stream()
+                .mapToLong(entry -> CENTRAL_HEADER_SIZE + entry.name().length)
+                .sum();
+
+        if (entries.size() > MAX_ZIP_ENTRIES || offset + centralDirectorySize > MAX_ZIP_OFFSET) {
+            throw new BusinessException("Album is too large to download as a single archive");
+        }
+
+        return new AlbumArchive(folder + ".zip", etagOf(entries), List.copyOf(entries),
+                offset, (int) centralDirectorySize);
+    }
+
+    /**
+     * Write bytes first..last (inclusive) of the archive. Only one track is read at a time;
+     * the request for the next one is issued while the current one is being copied.
+     */
+    public void writeRange(AlbumArchive archive, long first, long last, OutputStream out) throws IOException {
+        List<Slice> slices = archive.slicesBetween(first, last);
+        Future<InputStream> prefetched = null;
+
+        try {
+            for (int i = 0; i < slices.size(); i++) {
+                Slice slice = slices.get(i);
+
+                if (slice.data() == null) {
+                    out.write(slice.bytes(), (int) slice.offset(), (int) slice.length());
+                    continue;
+                }
+
+                InputStream in = prefetched != null ? await(prefetched) : open(slice);
+                prefetched = null;
+
+                Slice next = nextDataSlice(slices, i);
+                if (next != null) {
+                    prefetched = prefetchExecutor.submit(() -> open(next));
+                }
+
+                try (in) {
+                    copy(in, out, slice);
+                }
+            }
+            out.flush();
+        } finally {
+            if (prefetched != null) {
+                discard(prefetched);
+            }
+        }
+    }
+
+    private InputStream open(Slice slice) {
+        return storageService.openObjectStream(audioBucket, slice.data().audioKey(), slice.offset(), slice.length());
+    }
+
+    private void copy(InputStream in, OutputStream out, Slice slice) throws IOException {
+        byte[] buffer = new byte[COPY_BUFFER_SIZE];
+        long remaining = slice.length();
+        int read;
+        while (remaining > 0 && (read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining))) != -1) {
+            out.write(buffer, 0, read);
+            remaining -= read;
+        }
+        if (remaining > 0) {
+            throw new IOException("Audio object " + slice.data().audioKey() + " is shorter than its recorded size");
+        }
+    }
+
+    private InputStream await(Future<InputStream> prefetched) throws IOException {
+        try {
+            return prefetched.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while fetching audio", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException("Failed to fetch audio", e.getCause());
+        }
+    }
+
+    /**
+     * Close a prefetched stream that will not be used (client went away or the write failed)
+     */
+    private void discard(Future<InputStream> prefetched) {
+        if (prefetched.cancel(false)) {
+            return;
+        }
+        try (InputStream ignored = prefetched.get()) {
+            // only closing
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.debug("Discarded prefetched audio stream: {}", e.getMessage());
+        }
+    }
+
+    private Slice nextDataSlice(List<Slice> slices, int index) {
+        for (int i = index + 1; i < slices.size(); i++) {
+            if (slices.get(i).data() != null) {
+                return slices.get(i);
+            }
+        }
+        return null;
+    }
+
+    private void backfillChecksum(Track track) {
+        CRC32 crc = new CRC32();
+        long size;
+        try (InputStream in = new CheckedInputStream(
+                storageService.openObjectStream(audioBucket, track.getAudioKey(), 0, null), crc)) {
+            size = in.transferTo(OutputStream.nullOutputStream());
+        } catch (IOException e) {
+            throw new BusinessException("Failed to read audio for track " + track.getId() + ": " + e.getMessage());
+        }
+
+        track.setAudioCrc32(crc.getValue());
+        track.setFileSize(size);
+        log.info("Backfilled CRC-32 for track {} ({} bytes)", track.getId(), size);
+    }
+
+    private String getExtension(Track track) {
+        if (track.getAudioFormat() != null) {
+            return track.getAudioFormat().toLowerCase();
+        }
+        String key = track.getAudioKey();
+        return key.contains(".") ? key.substring(key.lastIndexOf('.') + 1).toLowerCase() : "mp3";
+    }
+
+    private String sanitize(String value) {
+        String sanitized = value == null ? "" : value.replaceAll("[\\\\/:*?\"<>|\\p{Cntrl}]", "_").trim();
+        return sanitized.isEmpty() ? "untitled" : sanitized;
+    }
+
+    /**
+     * Strong ETag over everything that determines the archive bytes, used to validate If-Range
+     */
+    private String etagOf(List<ArchiveEntry> entries) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (ArchiveEntry entry : entries) {
+                digest.update(entry.name());
+                digest.update(entry.audioKey().getBytes(StandardCharsets.UTF_8));
+                digest.update(ByteBuffer.allocate(16).putLong(entry.size()).putLong(entry.crc32()).array());
+            }
+            return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Archive layout: local header + data per entry, then the central directory and end record.
+     */
+    public record AlbumArchive(String fileName, String etag, List<ArchiveEntry> entries,
+                               long centralDirectoryOffset, int centralDirectorySize) {
+
+        public long length() {
+            return centralDirectoryOffset + centralDirectorySize + END_OF_CENTRAL_DIRECTORY_SIZE;
+        }
+
+        private List<Slice> slicesBetween(long first, long last) {
+            List<Slice> slices = new ArrayList<>();
+            for (ArchiveEntry entry : entries) {
+                long dataOffset = entry.localHeaderOffset() + LOCAL_HEADER_SIZE + entry.name().length;
+                addSlice(slices, first, last, entry.localHeaderOffset(), dataOffset - entry.localHeaderOffset(),
+                        null, entry.localHeader());
+                addSlice(slices, first, last, dataOffset, entry.size(), entry, null);
+            }
+            addSlice(slices, first, last, centralDirectoryOffset, length() - centralDirectoryOffset,
+                    null, centralDirectory());
+            return slices;
+        }
+
+        private void addSlice(List<Slice> slices, long first, long last, long start, long length,
+                              ArchiveEntry data, byte[] bytes) {
+            long from = Math.max(first, start);
+            long to = Math.min(last, start + length - 1);
+            if (from <= to) {
+                slices.add(new Slice(data, bytes, from - start, to - from + 1));
+            }
+        }
+
+        private byte[] centralDirectory() {
+            ByteBuffer buffer = ByteBuffer.allocate(centralDirectorySize + END_OF_CENTRAL_DIRECTORY_SIZE)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            for (ArchiveEntry entry : entries) {
+                buffer.putInt(0x02014b50)
+                        .putShort((short) ZIP_VERSION)   // version made by
+                        .putShort((short) ZIP_VERSION)   // version needed
+                        .putShort((short) UTF8_FLAG)
+                        .putShort((short) 0)             // STORED
+                        .putShort((short) 0)             // time
+                        .putShort((short) DOS_DATE_1980_01_01)
+                        .putInt((int) entry.crc32())
+                        .putInt((int) entry.size())      // compressed size
+                        .putInt((int) entry.size())      // uncompressed size
+                        .putShort((short) entry.name().length)
+                        .putShort((short) 0)             // extra field length
+                        .putShort((short) 0)             // comment length
+                        .putShort((short) 0)             // disk number
+                        .putShort((short) 0)             // internal attributes
+                        .putInt(0)                       // external attributes
+                        .putInt((int) entry.localHeaderOffset())
+                        .put(entry.name());
+            }
+            buffer.putInt(0x06054b50)
+                    .putShort((short) 0)                 // this disk
+                    .putShort((short) 0)                 // disk with central directory
+                    .putShort((short) entries.size())
+                    .putShort((short) entries.size())
+                    .putInt(centralDirectorySize)
+                    .putInt((int) centralDirectoryOffset)
+                    .putShort((short) 0);                // comment length
+            return buffer.array();
+        }
+    }
+
+    public record ArchiveEntry(byte[] name, String audioKey, long size, long crc32, long localHeaderOffset) {
+
+        private byte[] localHeader() {
+            return ByteBuffer.allocate(LOCAL_HEADER_SIZE + name.length)
+                    .order(ByteOrder.LITTLE_ENDIAN)
+                    .putInt(0x04034b50)
+                    .putShort((short) ZIP_VERSION)
+                    .putShort((short) UTF8_FLAG)
+                    .putShort((short) 0)                 // STORED
+                    .putShort((short) 0)                 // time
+                    .putShort((short) DOS_DATE_1980_01_01)
+                    .putInt((int) crc32)
+                    .putInt((int) size)
+                    .putInt((int) size)
+                    .putShort((short) name.length)
+                    .putShort((short) 0)                 // extra field length
+                    .put(name)
+                    .array();
+        }
+    }
+
+    /**
+     * A contiguous part of the requested range: either generated header bytes or a range of one audio object
+     */
+    private record Slice(ArchiveEntry data, byte[] bytes, long offset, long length) {}
+}
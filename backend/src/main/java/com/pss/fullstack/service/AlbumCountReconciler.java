@@ -0,0 +1,43 @@
+package com.pss.fullstack.service;
+
+import com.pss.fullstack.repository.ArtistRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Repairs drift of the denormalised {@code artists.album_count}. The services keep the count with
+ * in-place increments ({@code ArtistRepository.adjustAlbumCounts}) and recounts, which concurrent
+ * writers apply one after the other on the row lock, so they do not drift each other. Writes that
+ * bypass the services (manual SQL, migrations) are corrected here: stale artists are found and
+ * recounted in one statement each.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AlbumCountReconciler {
+
+    private final ArtistRepository artistRepository;
+    private final CatalogCacheService catalogCacheService;
+
+    @Scheduled(initialDelayString = "${catalog.album-count.initial-delay-ms:60000}",
+            fixedDelayString = "${catalog.album-count.reconcile-ms:3600000}")
+    @Transactional
+    public int reconcile() {
+        List<Long> staleIds = artistRepository.findIdsWithStaleAlbumCount();
+        if (staleIds.isEmpty()) {
+            return 0;
+        }
+
+        int repaired = artistRepository.recountAlbums(staleIds);
+        catalogCacheService.evictArtists(staleIds);
+        log.warn("Repaired album count of {} artists", repaired);
+        log.debug("Artists with a stale album count: {}", staleIds);
+        return repaired;
+    }
+
+}
@@ -0,0 +1,189 @@
+package com.pss.fullstack.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.dataformat.csv.CsvFactory;
+import com.fasterxml.jackson.dataformat.csv.CsvGenerator;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.pss.fullstack.model.Album;
+import com.pss.fullstack.model.Artist;
+import com.pss.fullstack.model.Track;
+import com.pss.fullstack.repository.AlbumRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Full catalog export: every active album with its artists, tracks and cover URLs, streamed
+ * as NDJSON or CSV (see {@link CatalogFormat}). Both formats carry the fields
+ * {@link AlbumImportService} reads (artistIds, tracks with durations), so an export can be
+ * imported again; the other fields are informational and ignored on import.
+ * Albums come from a single forward-only cursor and are written in chunks: touching a chunk's
+ * collections batch-loads them for the whole chunk (default_batch_fetch_size), then the chunk
+ * is written with a Jackson streaming generator and detached, so memory stays flat however
+ * large the catalog is.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AlbumExportService {
+
+    /** Albums detached together; matches default_batch_fetch_size so a chunk loads each association in one query */
+    static final int CHUNK_SIZE = 100;
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final CsvFactory CSV_FACTORY = new CsvFactory();
+
+    private static final CsvSchema CSV_SCHEMA = CsvSchema.builder()
+            .addColumn("id", CsvSchema.ColumnType.NUMBER)
+            .addColumn("title")
+            .addColumn("releaseYear", CsvSchema.ColumnType.NUMBER)
+            .addColumn("genre")
+            .addColumn("description")
+            .addColumn("trackCount", CsvSchema.ColumnType.NUMBER)
+            .addColumn("totalDuration", CsvSchema.ColumnType.NUMBER)
+            .addArrayColumn("artistIds", ";")
+            .addArrayColumn("artists", ";")
+            .addArrayColumn("tracks", ";")
+            .addArrayColumn("coverUrls", ";")
+            .setUseHeader(true)
+            .build();
+
+    private final AlbumRepository albumRepository;
+    private final UrlGeneratorService urlGeneratorService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Write the export to the stream. Runs in its own read-only transaction, which holds the cursor.
+     *
+     * @return the number of albums written
+     */
+    @Transactional(readOnly = true)
+    public long export(CatalogFormat format, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        // the lazy collection loads must not fill the second-level cache either
+        entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+
+        long count = 0;
+        try (Stream<Album> albums = albumRepository.streamActiveForExport();
+             JsonGenerator generator = createGenerator(format, out)) {
+            List<Album> chunk = new ArrayList<>(CHUNK_SIZE);
+            Iterator<Album> iterator = albums.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == CHUNK_SIZE || !iterator.hasNext()) {
+                    for (Album album : chunk) {
+                        writeAlbum(generator, album, format);
+                    }
+                    count += chunk.size();
+                    chunk.clear();
+                    generator.flush();
+                    entityManager.clear();
+                }
+            }
+        }
+
+        log.info("Exported {} albums as {} in {} ms", count, format, System.currentTimeMillis() - start);
+        return count;
+    }
+
+    private JsonGenerator createGenerator(CatalogFormat format, OutputStream out) throws IOException {
+        JsonGenerator generator;
+        if (format == CatalogFormat.CSV) {
+            CsvGenerator csvGenerator = CSV_FACTORY.createGenerator(out, JsonEncoding.UTF8);
+            csvGenerator.setSchema(CSV_SCHEMA);
+            generator = csvGenerator;
+        } else {
+            generator = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8);
+            generator.setRootValueSeparator(null); // lines are terminated explicitly
+        }
+        // the response stream belongs to the container
+        return generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * NDJSON keeps artists and tracks as objects; CSV cells hold artist names and tracks as
+     * "Title|seconds", the form the CSV import reads
+     */
+    private void writeAlbum(JsonGenerator generator, Album album, CatalogFormat format) throws IOException {
+        boolean flat = format == CatalogFormat.CSV;
+
+        generator.writeStartObject();
+        generator.writeNumberField("id", album.getId());
+        generator.writeStringField("title", album.getTitle());
+        writeNullableNumber(generator, "releaseYear", album.getReleaseYear());
+        generator.writeStringField("genre", album.getGenre());
+        generator.writeStringField("description", album.getDescription());
+        writeNullableNumber(generator, "trackCount", album.getTrackCount());
+        writeNullableNumber(generator, "totalDuration", album.getTotalDuration());
+
+        generator.writeArrayFieldStart("artistIds");
+        for (Artist artist : album.getArtists()) {
+            generator.writeNumber(artist.getId());
+        }
+        generator.writeEndArray();
+
+        generator.writeArrayFieldStart("artists");
+        for (Artist artist : album.getArtists()) {
+            if (flat) {
+                generator.writeString(artist.getName());
+            } else {
+                generator.writeStartObject();
+                generator.writeNumberField("id", artist.getId());
+                generator.writeStringField("name", artist.getName());
+                generator.writeStringField("type", artist.getType().name());
+                generator.writeEndObject();
+            }
+        }
+        generator.writeEndArray();
+
+        generator.writeArrayFieldStart("tracks");
+        for (Track track : album.getTracks()) {
+            if (flat) {
+                generator.writeString(track.getTitle() + "|" + track.getDuration());
+            } else {
+                generator.writeStartObject();
+                generator.writeNumberField("trackNumber", track.getTrackNumber());
+                generator.writeStringField("title", track.getTitle());
+                generator.writeNumberField("duration", track.getDuration());
+                generator.writeEndObject();
+            }
+        }
+        generator.writeEndArray();
+
+        generator.writeArrayFieldStart("coverUrls");
+        for (String coverKey : album.getCoverKeys()) {
+            generator.writeString(urlGeneratorService.generateAlbumCoverUrl(coverKey));
+        }
+        generator.writeEndArray();
+
+        generator.writeEndObject();
+        if (!flat) {
+            generator.writeRaw('\n');
+        }
+    }
+
+    private static void writeNullableNumber(JsonGenerator generator, String field, Integer value) throws IOException {
+        if (value == null) {
+            generator.writeNullField(field);
+        } else {
+            generator.writeNumberField(field, value);
+        }
+    }
+
+}
@@ -0,0 +1,366 @@
+package com.pss.fullstack.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.pss.fullstack.dto.AlbumCreateDTO;
+import com.pss.fullstack.dto.ImportErrorDTO;
+import com.pss.fullstack.dto.ImportResultDTO;
+import com.pss.fullstack.dto.TrackInputDTO;
+import com.pss.fullstack.model.Album;
+import com.pss.fullstack.model.Artist;
+import com.pss.fullstack.model.Track;
+import com.pss.fullstack.repository.AlbumRepository;
+import com.pss.fullstack.repository.ArtistRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk album import, the counterpart of {@link AlbumExportService}: an export imports again
+ * as new albums. Accepts NDJSON (one {@link AlbumCreateDTO} per line, other fields ignored) or
+ * CSV with the columns title, releaseYear, description, genre, artistIds ("1;2") and tracks
+ * ("Title|seconds;Title|seconds", numbered in order); other columns are ignored.
+ * <p>
+ * Rows are read as a stream and committed in chunks of {@code catalog-import.chunk-size}:
+ * each chunk resolves its artists with one query and inserts its albums and tracks in JDBC
+ * batches (pooled sequence ids, ordered inserts). Invalid rows are reported and skipped; a
+ * chunk the database rejects is retried row by row, so only the offending rows are lost.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AlbumImportService {
+
+    /** Failures listed in the result; any beyond are only counted */
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final ObjectReader CSV_READER = new CsvMapper()
+            .readerFor(Map.class)
+            .with(CsvSchema.emptySchema().withHeader());
+
+    private final AlbumRepository albumRepository;
+    private final ArtistRepository artistRepository;
+    private final SuggestService suggestService;
+    private final CatalogCacheService catalogCacheService;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${catalog-import.chunk-size:500}")
+    private int chunkSize;
+
+    /** An input row: the parsed album, or why it could not be read */
+    private record Row(long line, AlbumCreateDTO album, String error) {
+
+        String title() {
+            return album == null ? null : album.getTitle();
+        }
+    }
+
+    /**
+     * Import every row of the stream. Chunks are committed as they fill up, so rows before
+     * a failure stay imported.
+     */
+    public ImportResultDTO importAlbums(CatalogFormat format, InputStream in) throws IOException {
+        long start = System.currentTimeMillis();
+        Job job = new Job();
+
+        if (format == CatalogFormat.CSV) {
+            readCsv(in, job);
+        } else {
+            readNdjson(in, job);
+        }
+        job.flush();
+        // a chunk reports its validation failures before the database ones
+        job.errors.sort(Comparator.comparingLong(ImportErrorDTO::getLine));
+
+        log.info("Imported {} of {} albums ({} failed) from {} in {} ms",
+                job.imported, job.rows, job.failed, format, System.currentTimeMillis() - start);
+
+        return ImportResultDTO.builder()
+                .rows(job.rows)
+                .imported(job.imported)
+                .failed(job.failed)
+                .errors(job.errors)
+                .durationMs(System.currentTimeMillis() - start)
+                .build();
+    }
+
+    private void readNdjson(InputStream in, Job job) throws IOException {
+        // The application's mapper, tolerant of the informational fields of an export
+        ObjectReader albumReader = objectMapper.readerFor(AlbumCreateDTO.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            Row row;
+            try {
+                row = new Row(lineNumber, albumReader.readValue(line), null);
+            } catch (JsonProcessingException e) {
+                row = new Row(lineNumber, null, "Malformed JSON: " + e.getOriginalMessage());
+            }
+            job.add(row);
+        }
+    }
+
+    /**
+     * CSV line numbers count records, the header being line 1
+     */
+    private void readCsv(InputStream in, Job job) throws IOException {
+        long lineNumber = 1;
+        try (MappingIterator<Map<String, String>> records = CSV_READER.readValues(in)) {
+            while (true) {
+                Map<String, String> record;
+                try {
+                    if (!records.hasNextValue()) {
+                        break;
+                    }
+                    lineNumber++;
+                    record = records.nextValue();
+                } catch (IOException | RuntimeException e) {
+                    // The reader cannot resynchronise after a broken record
+                    job.add(new Row(lineNumber, null, "Unreadable CSV, import stopped: "
+                            + NestedExceptionUtils.getMostSpecificCause(e).getMessage()));
+                    return;
+                }
+
+                Row row;
+                try {
+                    row = new Row(lineNumber, fromCsv(record), null);
+                } catch (NumberFormatException e) {
+                    row = new Row(lineNumber, null, "Invalid number: " + e.getMessage());
+                }
+                job.add(row);
+            }
+        }
+    }
+
+    private static AlbumCreateDTO fromCsv(Map<String, String> record) {
+        List<TrackInputDTO> tracks = new ArrayList<>();
+        for (String entry : StringUtils.tokenizeToStringArray(record.get("tracks"), ";")) {
+            int separator = entry.lastIndexOf('|');
+            tracks.add(TrackInputDTO.builder()
+                    .title(separator < 0 ? entry : entry.substring(0, separator).trim())
+                    .trackNumber(tracks.size() + 1)
+                    .duration(separator < 0 ? 0 : Integer.parseInt(entry.substring(separator + 1).trim()))
+                    .build());
+        }
+
+        List<Long> artistIds = new ArrayList<>();
+        for (String id : StringUtils.tokenizeToStringArray(record.get("artistIds"), ";")) {
+            artistIds.add(Long.valueOf(id));
+        }
+
+        String releaseYear = record.get("releaseYear");
+        return AlbumCreateDTO.builder()
+                .title(record.get("title"))
+                .releaseYear(StringUtils.hasText(releaseYear) ? Integer.valueOf(releaseYear.trim()) : null)
+                .description(StringUtils.hasText(record.get("description")) ? record.get("description") : null)
+                .genre(StringUtils.hasText(record.get("genre")) ? record.get("genre") : null)
+                .artistIds(artistIds)
+                .tracks(tracks)
+                .build();
+    }
+
+    /**
+     * The validation errors of a row that can be rejected without the database, or null
+     */
+    private String validate(AlbumCreateDTO album) {
+        List<String> messages = new ArrayList<>();
+        validator.validate(album).stream()
+                .map(ConstraintViolation::getMessage)
+                .forEach(messages::add);
+
+        if (album.getTracks() != null) {
+            Set<Integer> numbers = new HashSet<>();
+            for (TrackInputDTO track : album.getTracks()) {
+                validator.validate(track).stream()
+                        .map(ConstraintViolation::getMessage)
+                        .forEach(messages::add);
+                if (track.getTrackNumber() != null && !numbers.add(track.getTrackNumber())) {
+                    messages.add("Duplicate track number " + track.getTrackNumber());
+                }
+            }
+        }
+        return messages.isEmpty() ? null : String.join("; ", messages);
+    }
+
+    private void importChunk(List<Row> chunk, Job job) {
+        List<Row> valid = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            String error = row.error() != null ? row.error() : validate(row.album());
+            if (error != null) {
+                job.fail(row, error);
+            } else {
+                valid.add(row);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        try {
+            job.saved(valid, transactionTemplate.execute(status -> saveRows(valid)));
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Import chunk starting at line {} failed, retrying row by row: {}",
+                    valid.get(0).line(), e.getMessage());
+            for (Row row : valid) {
+                try {
+                    job.saved(List.of(row), transactionTemplate.execute(status -> saveRows(List.of(row))));
+                } catch (DataAccessException | TransactionException rowError) {
+                    job.fail(row, NestedExceptionUtils.getMostSpecificCause(rowError).getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Insert the albums of the rows in the current transaction
+     *
+     * @return the rows rejected for unknown artists, with their error
+     */
+    private Map<Row, String> saveRows(List<Row> rows) {
+        Set<Long> artistIds = rows.stream()
+                .flatMap(row -> row.album().getArtistIds().stream())
+                .collect(Collectors.toSet());
+        Map<Long, Artist> artists = artistRepository.findAllById(artistIds).stream()
+                .collect(Collectors.toMap(Artist::getId, Function.identity()));
+
+        Map<Row, String> rejected = new LinkedHashMap<>();
+        List<Album> albums = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            AlbumCreateDTO dto = row.album();
+            Long missing = dto.getArtistIds().stream()
+                    .filter(id -> !artists.containsKey(id))
+                    .findFirst()
+                    .orElse(null);
+            if (missing != null) {
+                rejected.put(row, String.format("Artist not found with id: %d", missing));
+                continue;
+            }
+
+            Album album = dto.toEntity();
+            // Owning side only: adding to Artist.albums would load each artist's albums
+            dto.getArtistIds().forEach(id -> album.linkArtist(artists.get(id)));
+            if (dto.getTracks() != null) {
+                for (TrackInputDTO trackDto : dto.getTracks()) {
+                    album.addTrack(Track.builder()
+                            .title(trackDto.getTitle())
+                            .trackNumber(trackDto.getTrackNumber())
+                            .duration(trackDto.getDuration())
+                            .build());
+                }
+            }
+            album.updateTrackMetadata();
+            albums.add(album);
+        }
+
+        albumRepository.saveAllAndFlush(albums);
+        adjustAlbumCounts(albums);
+        albums.forEach(suggestService::albumChanged);
+        // The new albums show up in their artists' details (and in the cached list pages)
+        catalogCacheService.evictArtists(artists.keySet());
+        // Under open-in-view the persistence context outlives the transaction; keep it to one chunk
+        entityManager.clear();
+        return rejected;
+    }
+
+    /**
+     * Add the chunk's active albums to their artists' counts, one statement per distinct increment
+     * (usually one: most artists get a single album per chunk)
+     */
+    private void adjustAlbumCounts(List<Album> albums) {
+        Map<Long, Integer> added = new LinkedHashMap<>();
+        for (Album album : albums) {
+            if (Boolean.TRUE.equals(album.getActive())) {
+                album.getArtists().forEach(artist -> added.merge(artist.getId(), 1, Integer::sum));
+            }
+        }
+        added.entrySet().stream()
+                .collect(Collectors.groupingBy(Map.Entry::getValue,
+                        Collectors.mapping(Map.Entry::getKey, Collectors.toList())))
+                .forEach((delta, artistIds) -> artistRepository.adjustAlbumCounts(artistIds, delta));
+    }
+
+    /**
+     * Progress of one import: the pending chunk and the counters of the result
+     */
+    private final class Job {
+
+        private final List<Row> chunk = new ArrayList<>();
+        private final List<ImportErrorDTO> errors = new ArrayList<>();
+        private long rows;
+        private long imported;
+        private long failed;
+
+        void add(Row row) {
+            rows++;
+            chunk.add(row);
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, this);
+                chunk.clear();
+            }
+        }
+
+        void saved(List<Row> saved, Map<Row, String> rejected) {
+            imported += saved.size() - rejected.size();
+            rejected.forEach(this::fail);
+        }
+
+        void fail(Row row, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(ImportErrorDTO.builder()
+                        .line(row.line())
+                        .title(row.title())
+                        .message(message)
+                        .build());
+            }
+        }
+    }
+
+}
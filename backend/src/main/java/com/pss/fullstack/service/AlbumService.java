@@ -10,14 +10,21 @@ import com.pss.fullstack.repository.AlbumRepository;
 import com.pss.fullstack.repository.ArtistRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -28,106 +35,210 @@ import java.util.stream.Collectors;
 @Slf4j
 public class AlbumService {
 
+    /** Associations that {@code ?include=} can expand (tracks on the detail only) */
+    static final Set<String> INCLUDES = Set.of("artists", "tracks", "covers");
+
     private final AlbumRepository albumRepository;
     private final ArtistRepository artistRepository;
     private final NotificationService notificationService;
     private final AudioService audioService;
     private final StorageService storageService;
     private final UrlGeneratorService urlGeneratorService;
+    private final CatalogTotalsService catalogTotalsService;
+    private final SuggestService suggestService;
+    private final CatalogCacheService catalogCacheService;
 
     @Transactional(readOnly = true)
-    public PageResponse<AlbumDTO> findAll(int page, int size, String sortBy, String sortDir) {
-        Sort sort = sortDir.equalsIgnoreCase("desc")
-                ? Sort.by(sortBy).descending()
-                : Sort.by(sortBy).ascending();
+    public PageResponse<AlbumListItemDTO> findAll(int page, int size, String sortBy, String sortDir, boolean withTotal,
+                                                  FieldSelection selection) {
+        return findAll(page, size, sortBy, sortDir, withTotal, null, selection);
+    }
 
-        Pageable pageable = PageRequest.of(page, size, sort);
-        Page<Album> albumPage = albumRepository.findByActiveTrue(pageable);
+    /**
+     * Like {@link #findAll(int, int, String, String, boolean, FieldSelection)}; a known total
+     * (see {@link ListTag}) replaces the count query
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<AlbumListItemDTO> findAll(int page, int size, String sortBy, String sortDir, boolean withTotal,
+                                                  Long knownTotal, FieldSelection selection) {
+        Pageable pageable = pageRequest(page, size, sortBy, sortDir);
+        if (!withTotal) {
+            return toListSlice(albumRepository.sliceListItems(pageable), catalogTotalsService.approximateAlbumTotal(),
+                    selection);
+        }
+        if (knownTotal != null) {
+            return toListPage(countedPage(albumRepository.sliceListItems(pageable), knownTotal), selection);
+        }
+        return toListPage(albumRepository.findListItems(pageable), selection);
+    }
 
-        List<AlbumDTO> albums = albumPage.getContent().stream()
-                .map(album -> {
-                    // Generate proxy URLs for cover images
-                    List<String> proxyUrls = album.getCoverKeys().stream()
-                            .map(urlGeneratorService::generateAlbumCoverUrl)
-                            .collect(Collectors.toList());
-                    return AlbumDTO.fromEntityWithPresignedUrls(album, proxyUrls);
-                })
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public PageResponse<AlbumListItemDTO> findByFilters(String title, Integer year, int page, int size,
+                                                        String sortBy, String sortDir, boolean withTotal,
+                                                        FieldSelection selection) {
+        return findByFilters(title, year, page, size, sortBy, sortDir, withTotal, null, selection);
+    }
 
-        return PageResponse.from(albumPage, albums);
+    /**
+     * Like {@link #findByFilters(String, Integer, int, int, String, String, boolean, FieldSelection)};
+     * a known total (see {@link ListTag}) replaces the count query
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<AlbumListItemDTO> findByFilters(String title, Integer year, int page, int size,
+                                                        String sortBy, String sortDir, boolean withTotal,
+                                                        Long knownTotal, FieldSelection selection) {
+        Pageable pageable = pageRequest(page, size, sortBy, sortDir);
+        if (!withTotal) {
+            return toListSlice(albumRepository.sliceListItemsByFilters(title, year, pageable), null, selection);
+        }
+        if (knownTotal != null) {
+            return toListPage(countedPage(albumRepository.sliceListItemsByFilters(title, year, pageable), knownTotal),
+                    selection);
+        }
+        return toListPage(albumRepository.findListItemsByFilters(title, year, pageable), selection);
     }
 
     @Transactional(readOnly = true)
-    public PageResponse<AlbumDTO> findByFilters(String title, Integer year, int page, int size, String sortBy, String sortDir) {
-        Sort sort = sortDir.equalsIgnoreCase("desc")
-                ? Sort.by(sortBy).descending()
-                : Sort.by(sortBy).ascending();
+    public PageResponse<AlbumListItemDTO> findByArtistId(Long artistId, int page, int size, boolean withTotal,
+                                                         FieldSelection selection) {
+        if (!artistRepository.existsById(artistId)) {
+            throw new ResourceNotFoundException("Artist", artistId);
+        }
+
+        Pageable pageable = PageRequest.of(page, size, Sort.by("title").ascending());
+        if (!withTotal) {
+            return toListSlice(albumRepository.sliceListItemsByArtistId(artistId, pageable), null, selection);
+        }
+        return toListPage(albumRepository.findListItemsByArtistId(artistId, pageable), selection);
+    }
+
+    /**
+     * Keyset pagination over the album list, optionally restricted to one artist.
+     * Only the title ordering is supported, since the cursor carries the title and id of the last album.
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<AlbumListItemDTO> findByCursor(String title, Integer year, Long artistId, String cursor,
+                                                       int size, String sortBy, String sortDir,
+                                                       FieldSelection selection) {
+        if (!"title".equals(sortBy)) {
+            throw new BusinessException("Cursor pagination only supports sorting by title");
+        }
+        if (artistId != null && !artistRepository.existsById(artistId)) {
+            throw new ResourceNotFoundException("Artist", artistId);
+        }
 
-        Pageable pageable = PageRequest.of(page, size, sort);
-        Page<Album> albumPage = albumRepository.findByFilters(title, year, pageable);
+        boolean descending = sortDir.equalsIgnoreCase("desc");
+        KeysetCursor after = KeysetCursor.decode(cursor, sortBy, descending);
 
-        List<AlbumDTO> albums = albumPage.getContent().stream()
-                .map(album -> {
-                    // Generate proxy URLs for cover images
-                    List<String> proxyUrls = album.getCoverKeys().stream()
-                            .map(urlGeneratorService::generateAlbumCoverUrl)
-                            .collect(Collectors.toList());
-                    return AlbumDTO.fromEntityWithPresignedUrls(album, proxyUrls);
-                })
-                .collect(Collectors.toList());
+        List<AlbumListItemDTO> albums = albumRepository.findListItemsAfter(title, year, artistId,
+                after == null ? null : after.value(), after == null ? null : after.id(), descending, size + 1);
 
-        return PageResponse.from(albumPage, albums);
+        String nextCursor = null;
+        if (albums.size() > size) {
+            albums = albums.subList(0, size);
+            AlbumListItemDTO lastAlbum = albums.get(size - 1);
+            nextCursor = new KeysetCursor(sortBy, descending, lastAlbum.getTitle(), lastAlbum.getId()).encode();
+        }
+
+        return PageResponse.fromCursor(completeListItems(albums, selection), size, after == null, nextCursor);
     }
 
+    /**
+     * ETag of an offset list page ({@link #findAll}, {@link #findByFilters}), read with a version-only query
+     */
     @Transactional(readOnly = true)
-    public PageResponse<AlbumDTO> findByArtistId(Long artistId, int page, int size) {
-        if (!artistRepository.existsById(artistId)) {
-            throw new ResourceNotFoundException("Artist", artistId);
+    public ListTag findListEtag(String title, Integer year, int page, int size,
+                                String sortBy, String sortDir, boolean withTotal) {
+        Pageable pageable = pageRequest(page, size, sortBy, sortDir);
+        String query = "title=" + title + "&year=" + year + "&" + pageable + "&withTotal=" + withTotal;
+        if (withTotal) {
+            Page<VersionRow> rows = albumRepository.findListVersions(title, year, pageable);
+            return new ListTag(EntityTags.ofList("albums", query, rows, rows.getTotalElements()), rows.getTotalElements());
         }
+        Long approximateTotal = title == null && year == null ? catalogTotalsService.approximateAlbumTotal() : null;
+        return new ListTag(EntityTags.ofList("albums", query,
+                albumRepository.sliceListVersions(title, year, pageable), approximateTotal), null);
+    }
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by("title").ascending());
-        Page<Album> albumPage = albumRepository.findByArtistId(artistId, pageable);
-
-        List<AlbumDTO> albums = albumPage.getContent().stream()
-                .map(album -> {
-                    // Generate proxy URLs for cover images
-                    List<String> proxyUrls = album.getCoverKeys().stream()
-                            .map(urlGeneratorService::generateAlbumCoverUrl)
-                            .collect(Collectors.toList());
-                    return AlbumDTO.fromEntityWithPresignedUrls(album, proxyUrls);
-                })
-                .collect(Collectors.toList());
+    /**
+     * ETag of the album detail, read with a version-only query
+     */
+    @Transactional(readOnly = true)
+    public String findEtag(Long id) {
+        return albumRepository.findVersionRow(id)
+                .map(row -> EntityTags.of("album", row))
+                .orElseThrow(() -> new ResourceNotFoundException("Album", id));
+    }
+
+    /**
+     * Counts of the filtered album list by genre, release year and decade (folded from the
+     * years), from two grouped queries. Cached per filter until the next catalog change.
+     */
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CatalogCacheService.FACETS, key = "new org.springframework.cache.interceptor.SimpleKey('albums', #title?.toLowerCase(), #year)")
+    public FacetsDTO findFacets(String title, Integer year) {
+        List<FacetRow> years = albumRepository.countByReleaseYear(title, year);
+
+        // Years come newest first, so the decades do too
+        Map<Integer, Long> decades = new LinkedHashMap<>();
+        long total = 0;
+        for (FacetRow row : years) {
+            Integer decade = row.value() == null ? null : (Integer) row.value() / 10 * 10;
+            decades.merge(decade, row.count(), Long::sum);
+            total += row.count();
+        }
 
-        return PageResponse.from(albumPage, albums);
+        Map<String, List<FacetCountDTO>> facets = new LinkedHashMap<>();
+        facets.put("genre", albumRepository.countByGenre(title, year).stream().map(FacetCountDTO::fromRow).toList());
+        facets.put("releaseYear", years.stream().map(FacetCountDTO::fromRow).toList());
+        facets.put("decade", decades.entrySet().stream()
+                .map(decade -> FacetCountDTO.fromRow(new FacetRow(decade.getKey(), decade.getValue())))
+                .toList());
+        return FacetsDTO.builder().total(total).facets(facets).build();
     }
 
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CatalogCacheService.ALBUM_DETAILS, key = "#id")
     public AlbumDTO findById(Long id) {
         Album album = albumRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Album", id));
 
-        // Generate proxy URLs for cover images
-        List<String> proxyUrls = album.getCoverKeys().stream()
-                .map(urlGeneratorService::generateAlbumCoverUrl)
-                .collect(Collectors.toList());
+        return toDTO(album);
+    }
+
+    /**
+     * Album detail restricted to a field selection, not cached: associations left out
+     * (artists, tracks, covers) are not loaded
+     */
+    @Transactional(readOnly = true)
+    public AlbumDTO findById(Long id, FieldSelection selection) {
+        requireSupported(selection);
+        Album album = albumRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Album", id));
 
-        return AlbumDTO.fromEntityWithPresignedUrls(album, proxyUrls);
+        AlbumDTO dto = AlbumDTO.fromEntityWithoutAssociations(album);
+        if (selection.includes("artists", "artists")) {
+            dto.setArtists(album.getArtists().stream().map(ArtistSimpleDTO::fromEntity).collect(Collectors.toList()));
+        }
+        if (selection.includes("tracks", "tracks")) {
+            dto.setTracks(album.getTracks().stream().map(this::toTrackDTO).collect(Collectors.toList()));
+        }
+        if (selection.includes("covers", "coverUrls")) {
+            dto.setCoverUrls(album.getCoverKeys().stream()
+                    .map(urlGeneratorService::generateAlbumCoverUrl)
+                    .collect(Collectors.toList()));
+        }
+        return dto;
     }
 
     @Transactional
     public AlbumDTO create(AlbumCreateDTO dto) {
         log.info("Creating new album: {}", dto.getTitle());
 
-        // Validate and fetch artists
-        Set<Artist> artists = new HashSet<>();
-        for (Long artistId : dto.getArtistIds()) {
-            Artist artist = artistRepository.findById(artistId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Artist", artistId));
-            artists.add(artist);
-        }
+        List<Artist> artists = findArtists(dto.getArtistIds());
 
         Album album = dto.toEntity();
-        album.setArtists(artists);
+        artists.forEach(album::linkArtist);
 
         // Process tracks if provided
         if (dto.getTracks() != null && !dto.getTracks().isEmpty()) {
@@ -143,6 +254,12 @@ public class AlbumService {
         }
 
         album = albumRepository.save(album);
+        if (Boolean.TRUE.equals(album.getActive())) {
+            adjustAlbumCounts(artists, 1);
+        }
+        suggestService.albumChanged(album);
+        // The new album shows up in its artists' details
+        catalogCacheService.evictAlbum(album);
 
         log.info("Album created with id: {}", album.getId());
 
@@ -152,12 +269,7 @@ public class AlbumService {
                 .collect(Collectors.joining(", "));
         notificationService.notifyNewAlbum(album.getId(), album.getTitle(), artistNames);
 
-        // Generate proxy URLs for cover images
-        List<String> proxyUrls = album.getCoverKeys().stream()
-                .map(urlGeneratorService::generateAlbumCoverUrl)
-                .collect(Collectors.toList());
-
-        return AlbumDTO.fromEntityWithPresignedUrls(album, proxyUrls);
+        return toDTO(album);
     }
 
     @Transactional
@@ -186,56 +298,38 @@ public class AlbumService {
             album.setTotalDuration(dto.getTotalDuration());
         }
         if (dto.getArtistIds() != null && !dto.getArtistIds().isEmpty()) {
-            Set<Artist> artists = new HashSet<>();
-            for (Long artistId : dto.getArtistIds()) {
-                Artist artist = artistRepository.findById(artistId)
-                        .orElseThrow(() -> new ResourceNotFoundException("Artist", artistId));
-                artists.add(artist);
+            // Artists unlinked here must drop the album from their details too
+            catalogCacheService.evictArtists(album.getArtists().stream().map(Artist::getId).toList());
+
+            List<Artist> artists = findArtists(dto.getArtistIds());
+            List<Artist> unlinked = album.getArtists().stream()
+                    .filter(artist -> !artists.contains(artist))
+                    .toList();
+            unlinked.forEach(album::unlinkArtist);
+            List<Artist> linked = new ArrayList<>();
+            for (Artist artist : artists) {
+                if (album.linkArtist(artist)) {
+                    linked.add(artist);
+                }
+            }
+            if (Boolean.TRUE.equals(album.getActive())) {
+                adjustAlbumCounts(unlinked, -1);
+                adjustAlbumCounts(linked, 1);
             }
-            album.setArtists(artists);
         }
 
         // Process tracks if provided
         if (dto.getTracks() != null) {
-            // Map existing tracks by ID to preserve audio metadata
-            Map<Long, Track> existingTracks = album.getTracks().stream()
-                    .filter(t -> t.getId() != null)
-                    .collect(Collectors.toMap(Track::getId, t -> t));
-
-            // Clear and force flush to avoid constraint violation (UNIQUE album_id, track_number)
-            album.getTracks().clear();
-            albumRepository.flush();
-
-            for (TrackInputDTO trackDto : dto.getTracks()) {
-                Track track;
-                if (trackDto.getId() != null && existingTracks.containsKey(trackDto.getId())) {
-                    // Update existing track, preserving audio metadata
-                    track = existingTracks.get(trackDto.getId());
-                    track.setTitle(trackDto.getTitle());
-                    track.setTrackNumber(trackDto.getTrackNumber());
-                    track.setDuration(trackDto.getDuration());
-                } else {
-                    // Create new track
-                    track = Track.builder()
-                            .title(trackDto.getTitle())
-                            .trackNumber(trackDto.getTrackNumber())
-                            .duration(trackDto.getDuration())
-                            .build();
-                }
-                album.addTrack(track);
-            }
+            reconcileTracks(album, dto.getTracks());
             album.updateTrackMetadata();
         }
 
         album = albumRepository.save(album);
+        suggestService.albumChanged(album);
+        catalogCacheService.evictAlbum(album);
         log.info("Album updated: {}", album.getId());
 
-        // Generate proxy URLs for cover images
-        List<String> proxyUrls = album.getCoverKeys().stream()
-                .map(urlGeneratorService::generateAlbumCoverUrl)
-                .collect(Collectors.toList());
-
-        return AlbumDTO.fromEntityWithPresignedUrls(album, proxyUrls);
+        return toDTO(album);
     }
 
     @Transactional
@@ -258,6 +352,7 @@ public class AlbumService {
 
         album.addCoverKey(coverKey);
         albumRepository.save(album);
+        catalogCacheService.evictAlbum(album);
 
         log.info("Cover added to album {}: {}", id, coverKey);
     }
@@ -290,6 +385,7 @@ public class AlbumService {
             // Clear cover keys from database
             album.getCoverKeys().clear();
             albumRepository.save(album);
+            catalogCacheService.evictAlbum(album);
 
             log.info("All covers removed from album {}", id);
         } else {
@@ -323,7 +419,7 @@ public class AlbumService {
         // Add tracks with streaming URLs
         List<TrackDTO> tracksWithUrls = album.getTracks().stream()
                 .map(track -> {
-                    TrackDTO dto = TrackDTO.fromEntity(track);
+                    TrackDTO dto = toTrackDTO(track);
                     if (track.getAudioKey() != null) {
                         try {
                             dto.setStreamUrl(audioService.getStreamUrl(track.getId()));
@@ -347,10 +443,152 @@ public class AlbumService {
         Album album = albumRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Album", id));
 
+        boolean wasActive = Boolean.TRUE.equals(album.getActive());
         album.setActive(false);
         albumRepository.save(album);
+        if (wasActive) {
+            // Artists only count active albums
+            adjustAlbumCounts(album.getArtists(), -1);
+        }
+        suggestService.albumChanged(album);
+        catalogCacheService.evictAlbum(album);
 
         log.info("Album deactivated: {}", id);
     }
 
+    private void adjustAlbumCounts(Collection<Artist> artists, int delta) {
+        if (!artists.isEmpty()) {
+            artistRepository.adjustAlbumCounts(artists.stream().map(Artist::getId).toList(), delta);
+        }
+    }
+
+    private PageResponse<AlbumListItemDTO> toListPage(Page<AlbumListItemDTO> albumPage, FieldSelection selection) {
+        return PageResponse.from(albumPage, completeListItems(albumPage.getContent(), selection));
+    }
+
+    private static <T> Page<T> countedPage(Slice<T> slice, long total) {
+        return new PageImpl<>(slice.getContent(), slice.getPageable(), total);
+    }
+
+    private PageResponse<AlbumListItemDTO> toListSlice(Slice<AlbumListItemDTO> albumSlice, Long approximateTotal,
+                                                       FieldSelection selection) {
+        return PageResponse.fromSlice(albumSlice, completeListItems(albumSlice.getContent(), selection), approximateTotal);
+    }
+
+    private static void requireSupported(FieldSelection selection) {
+        if (!selection.supports(INCLUDES)) {
+            throw new BusinessException("Unsupported include, expected one of " + INCLUDES);
+        }
+    }
+
+    /**
+     * Complete list items with cover URLs and the artists of all their albums (one query),
+     * unless the selection leaves them out
+     */
+    private List<AlbumListItemDTO> completeListItems(List<AlbumListItemDTO> albums, FieldSelection selection) {
+        requireSupported(selection);
+        if (!albums.isEmpty()) {
+            Map<Long, List<ArtistSimpleDTO>> artistsByAlbum = null;
+            if (selection.includes("artists", "artists")) {
+                List<Long> albumIds = albums.stream().map(AlbumListItemDTO::getId).toList();
+                artistsByAlbum = albumRepository.findArtistRowsByAlbumIds(albumIds).stream()
+                        .collect(Collectors.groupingBy(AlbumArtistRow::albumId,
+                                Collectors.mapping(AlbumArtistRow::toArtist, Collectors.toList())));
+            }
+            boolean covers = selection.includes("covers", "coverUrl");
+
+            for (AlbumListItemDTO album : albums) {
+                if (artistsByAlbum != null) {
+                    album.setArtists(artistsByAlbum.getOrDefault(album.getId(), List.of()));
+                }
+                if (covers && album.getCoverKey() != null) {
+                    album.setCoverUrl(urlGeneratorService.generateAlbumCoverUrl(album.getCoverKey()));
+                }
+            }
+        }
+
+        return albums;
+    }
+
+    private static Pageable pageRequest(int page, int size, String sortBy, String sortDir) {
+        Sort sort = sortDir.equalsIgnoreCase("desc")
+                ? Sort.by(sortBy).descending()
+                : Sort.by(sortBy).ascending();
+        return PageRequest.of(page, size, sort);
+    }
+
+    /**
+     * The artists with the given ids, checked in one query: the first unknown id is not found
+     */
+    private List<Artist> findArtists(Collection<Long> artistIds) {
+        List<Artist> artists = artistRepository.findAllById(new HashSet<>(artistIds));
+        Set<Long> found = artists.stream().map(Artist::getId).collect(Collectors.toSet());
+        artistIds.stream()
+                .filter(artistId -> !found.contains(artistId))
+                .findFirst()
+                .ifPresent(artistId -> {
+                    throw new ResourceNotFoundException("Artist", artistId);
+                });
+        return artists;
+    }
+
+    /**
+     * Bring the album's tracks in line with the request in place: tracks matched by id are
+     * updated (only changed columns make them dirty, audio metadata is kept), unmatched ones
+     * are deleted through orphan removal and the rest inserted. Renumbering can collide with
+     * a row not yet updated during the flush, so uk_album_track_number is checked at commit (V21).
+     */
+    private void reconcileTracks(Album album, List<TrackInputDTO> input) {
+        Set<Integer> trackNumbers = new HashSet<>();
+        for (TrackInputDTO trackDto : input) {
+            if (!trackNumbers.add(trackDto.getTrackNumber())) {
+                throw new BusinessException("Duplicate track number: " + trackDto.getTrackNumber());
+            }
+        }
+
+        Map<Long, Track> unmatched = album.getTracks().stream()
+                .collect(Collectors.toMap(Track::getId, t -> t));
+        List<Track> added = new ArrayList<>();
+        for (TrackInputDTO trackDto : input) {
+            Track track = trackDto.getId() != null ? unmatched.remove(trackDto.getId()) : null;
+            if (track == null) {
+                added.add(Track.builder()
+                        .title(trackDto.getTitle())
+                        .trackNumber(trackDto.getTrackNumber())
+                        .duration(trackDto.getDuration())
+                        .build());
+            } else {
+                track.setTitle(trackDto.getTitle());
+                track.setTrackNumber(trackDto.getTrackNumber());
+                track.setDuration(trackDto.getDuration());
+            }
+        }
+
+        album.getTracks().removeIf(track -> unmatched.containsKey(track.getId()));
+        added.forEach(album::addTrack);
+        // same order as when loaded (@OrderBy), for the returned DTO
+        album.getTracks().sort(Comparator.comparing(Track::getTrackNumber));
+    }
+
+    private AlbumDTO toDTO(Album album) {
+        // Generate proxy URLs for cover images
+        List<String> proxyUrls = album.getCoverKeys().stream()
+                .map(urlGeneratorService::generateAlbumCoverUrl)
+                .collect(Collectors.toList());
+
+        AlbumDTO dto = AlbumDTO.fromEntityWithPresignedUrls(album, proxyUrls);
+        dto.setTracks(album.getTracks().stream()
+                .map(this::toTrackDTO)
+                .collect(Collectors.toList()));
+        return dto;
+    }
+
+    private TrackDTO toTrackDTO(Track track) {
+        TrackDTO dto = TrackDTO.fromEntity(track);
+        if (track.getPreviewKey() != null) {
+            dto.setPreviewUrl(urlGeneratorService.generatePreviewUrl(track.getPreviewKey()));
+        }
+        return dto;
+    }
+
 }
@@ -1,24 +1,36 @@
 package com.pss.fullstack.service;
 
 import com.pss.fullstack.dto.*;
+import com.pss.fullstack.exception.BusinessException;
 import com.pss.fullstack.exception.ResourceNotFoundException;
 import com.pss.fullstack.model.Album;
 import com.pss.fullstack.model.Artist;
 import com.pss.fullstack.model.ArtistType;
 import com.pss.fullstack.repository.AlbumRepository;
 import com.pss.fullstack.repository.ArtistRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -27,34 +39,87 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ArtistService {
 
+    /** Associations that {@code ?include=} can expand */
+    static final Set<String> INCLUDES = Set.of("albums");
+
+    static final int MAX_SEARCH_LIMIT = 50;
+
     private final ArtistRepository artistRepository;
     private final AlbumRepository albumRepository;
     private final StorageService storageService;
     private final UrlGeneratorService urlGeneratorService;
+    private final CatalogTotalsService catalogTotalsService;
+    private final SuggestService suggestService;
+    private final CatalogCacheService catalogCacheService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${artist-list.album-previews:5}")
+    private int albumPreviews;
 
     @Transactional(readOnly = true)
-    public PageResponse<ArtistDTO> findAll(int page, int size, String sortBy, String sortDir) {
-        Sort sort = sortDir.equalsIgnoreCase("desc")
-                ? Sort.by(sortBy).descending()
-                : Sort.by(sortBy).ascending();
+    public PageResponse<ArtistDTO> findAll(int page, int size, String sortBy, String sortDir, boolean withTotal,
+                                           FieldSelection selection) {
+        return findAll(page, size, sortBy, sortDir, withTotal, null, selection);
+    }
 
-        Pageable pageable = PageRequest.of(page, size, sort);
-        Page<Artist> artistPage = artistRepository.findByActiveTrue(pageable);
+    /**
+     * Like {@link #findAll(int, int, String, String, boolean, FieldSelection)}; a known total
+     * (see {@link ListTag}) replaces the count query
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<ArtistDTO> findAll(int page, int size, String sortBy, String sortDir, boolean withTotal,
+                                           Long knownTotal, FieldSelection selection) {
+        Pageable pageable = pageRequest(page, size, sortBy, sortDir);
+        if (!withTotal) {
+            return toSliceResponse(artistRepository.findSliceByActiveTrue(pageable),
+                    catalogTotalsService.approximateArtistTotal(), selection);
+        }
 
-        List<ArtistDTO> artists = artistPage.getContent().stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        Page<Artist> artistPage = knownTotal != null
+                ? countedPage(artistRepository.findSliceByActiveTrue(pageable), knownTotal)
+                : artistRepository.findByActiveTrue(pageable);
 
-        return PageResponse.from(artistPage, artists);
+        return PageResponse.from(artistPage, toDTOs(artistPage.getContent(), selection));
     }
 
     @Transactional(readOnly = true)
-    public PageResponse<ArtistDTO> findByFilters(String name, ArtistType type, int page, int size, String sortBy, String sortDir) {
-        Sort sort = sortDir.equalsIgnoreCase("desc")
-                ? Sort.by(sortBy).descending()
-                : Sort.by(sortBy).ascending();
+    public PageResponse<ArtistDTO> findByFilters(String name, ArtistType type, int page, int size,
+                                                 String sortBy, String sortDir, boolean withTotal,
+                                                 FieldSelection selection) {
+        return findByFilters(name, type, page, size, sortBy, sortDir, withTotal, null, selection);
+    }
+
+    /**
+     * Like {@link #findByFilters(String, ArtistType, int, int, String, String, boolean, FieldSelection)};
+     * a known total (see {@link ListTag}) replaces the count query
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<ArtistDTO> findByFilters(String name, ArtistType type, int page, int size,
+                                                 String sortBy, String sortDir, boolean withTotal,
+                                                 Long knownTotal, FieldSelection selection) {
+        Pageable pageable = pageRequest(page, size, sortBy, sortDir);
+
+        // With a known total only the page rows are needed
+        if (!withTotal || knownTotal != null) {
+            Slice<Artist> artistSlice;
+            if (name != null && type != null) {
+                artistSlice = artistRepository.findSliceByNameContainingIgnoreCaseAndTypeAndActiveTrue(name, type, pageable);
+            } else if (name != null) {
+                artistSlice = artistRepository.findSliceByNameContainingIgnoreCaseAndActiveTrue(name, pageable);
+            } else if (type != null) {
+                artistSlice = artistRepository.findSliceByTypeAndActiveTrue(type, pageable);
+            } else {
+                artistSlice = artistRepository.findSliceByActiveTrue(pageable);
+            }
+            if (withTotal) {
+                Page<Artist> artistPage = countedPage(artistSlice, knownTotal);
+                return PageResponse.from(artistPage, toDTOs(artistPage.getContent(), selection));
+            }
+            return toSliceResponse(artistSlice, null, selection);
+        }
 
-        Pageable pageable = PageRequest.of(page, size, sort);
         Page<Artist> artistPage;
 
         // Use specific methods to avoid SQL function issues with null parameters
@@ -68,36 +133,125 @@ public class ArtistService {
             artistPage = artistRepository.findByActiveTrue(pageable);
         }
 
-        List<ArtistDTO> artists = artistPage.getContent().stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return PageResponse.from(artistPage, toDTOs(artistPage.getContent(), selection));
+    }
+
+    /**
+     * Keyset pagination over the artist list. Only the name ordering is supported,
+     * since the cursor carries the name and id of the last artist.
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<ArtistDTO> findByCursor(String name, ArtistType type, String cursor,
+                                                int size, String sortBy, String sortDir, FieldSelection selection) {
+        if (!"name".equals(sortBy)) {
+            throw new BusinessException("Cursor pagination only supports sorting by name");
+        }
+
+        boolean descending = sortDir.equalsIgnoreCase("desc");
+        KeysetCursor after = KeysetCursor.decode(cursor, sortBy, descending);
 
-        return PageResponse.from(artistPage, artists);
+        List<Artist> artists = artistRepository.findActiveAfter(name, type,
+                after == null ? null : after.value(), after == null ? null : after.id(), descending, size + 1);
+
+        String nextCursor = null;
+        if (artists.size() > size) {
+            artists = artists.subList(0, size);
+            Artist lastArtist = artists.get(size - 1);
+            nextCursor = new KeysetCursor(sortBy, descending, lastArtist.getName(), lastArtist.getId()).encode();
+        }
+
+        return PageResponse.fromCursor(toDTOs(artists, selection), size, after == null, nextCursor);
+    }
+
+    /**
+     * ETag of an offset list page ({@link #findAll}, {@link #findByFilters}), read with a version-only query
+     */
+    @Transactional(readOnly = true)
+    public ListTag findListEtag(String name, ArtistType type, int page, int size,
+                                String sortBy, String sortDir, boolean withTotal) {
+        Pageable pageable = pageRequest(page, size, sortBy, sortDir);
+        String query = "name=" + name + "&type=" + type + "&" + pageable + "&withTotal=" + withTotal;
+        Slice<VersionRow> rows = artistRepository.findListVersions(name, type, pageable, withTotal);
+        if (rows instanceof Page<VersionRow> rowPage) {
+            return new ListTag(EntityTags.ofList("artists", query, rows, rowPage.getTotalElements()),
+                    rowPage.getTotalElements());
+        }
+        Long approximateTotal = name == null && type == null ? catalogTotalsService.approximateArtistTotal() : null;
+        return new ListTag(EntityTags.ofList("artists", query, rows, approximateTotal), null);
+    }
+
+    /**
+     * ETag of the artist detail, read with a version-only query
+     */
+    @Transactional(readOnly = true)
+    public String findEtag(Long id) {
+        return artistRepository.findVersionRow(id)
+                .map(row -> EntityTags.of("artist", row))
+                .orElseThrow(() -> new ResourceNotFoundException("Artist", id));
+    }
+
+    /**
+     * Counts of the filtered artist list by type and country, from two grouped queries.
+     * Cached per filter until the next catalog change.
+     */
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CatalogCacheService.FACETS, key = "new org.springframework.cache.interceptor.SimpleKey('artists', #name?.toLowerCase(), #type)")
+    public FacetsDTO findFacets(String name, ArtistType type) {
+        List<FacetCountDTO> types = artistRepository.countByType(name, type).stream()
+                .map(FacetCountDTO::fromRow)
+                .toList();
+
+        Map<String, List<FacetCountDTO>> facets = new LinkedHashMap<>();
+        facets.put("type", types);
+        facets.put("country", artistRepository.countByCountry(name, type).stream().map(FacetCountDTO::fromRow).toList());
+        return FacetsDTO.builder()
+                .total(types.stream().mapToLong(FacetCountDTO::getCount).sum())
+                .facets(facets)
+                .build();
     }
 
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CatalogCacheService.ARTIST_DETAILS, key = "#id")
     public ArtistDTO findById(Long id) {
         Artist artist = artistRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Artist", id));
         return toDTO(artist);
     }
 
+    /**
+     * Artist detail restricted to a field selection, not cached: without the albums,
+     * they are not loaded
+     */
+    @Transactional(readOnly = true)
+    public ArtistDTO findById(Long id, FieldSelection selection) {
+        Artist artist = artistRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Artist", id));
+        requireSupported(selection);
+        return selection.includes("albums", "albums") ? toDTO(artist) : toDTOWithoutAlbums(artist);
+    }
+
     @Transactional
     public ArtistDTO create(ArtistCreateDTO dto) {
         log.info("Creating new artist: {}", dto.getName());
 
         Artist artist = dto.toEntity();
+        Set<Long> albumIds = requireAlbums(dto.getAlbumIds());
         artist = artistRepository.save(artist);
 
-        // Link albums if provided
-        if (dto.getAlbumIds() != null && !dto.getAlbumIds().isEmpty()) {
-            List<Album> albums = albumRepository.findAllById(dto.getAlbumIds());
-            for (Album album : albums) {
-                artist.addAlbum(album);
-            }
-            artist = artistRepository.save(artist);
+        if (!albumIds.isEmpty()) {
+            // The artist row must exist before its links, inserted in one statement
+            artistRepository.flush();
+            artistRepository.linkAlbums(artist.getId(), albumIds);
+            albumRepository.incrementVersions(albumIds);
+            artistRepository.recountAlbums(List.of(artist.getId()));
+            // The links and the count bypassed the entity
+            entityManager.refresh(artist);
         }
 
+        suggestService.artistChanged(artist);
+        // The linked albums show the new artist in their details
+        catalogCacheService.evictArtist(artist);
+
         log.info("Artist created with id: {}", artist.getId());
         return toDTO(artist);
     }
@@ -109,6 +263,35 @@ public class ArtistService {
         Artist artist = artistRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Artist", id));
 
+        // Links first, while the artist has no pending change to flush ahead of the bulk statements
+        if (dto.getAlbumIds() != null) {
+            Set<Long> newAlbumIds = requireAlbums(dto.getAlbumIds());
+            Set<Long> currentAlbumIds = artistRepository.findAlbumIds(id);
+
+            Set<Long> toRemove = new HashSet<>(currentAlbumIds);
+            toRemove.removeAll(newAlbumIds);
+            if (!toRemove.isEmpty()) {
+                artistRepository.unlinkAlbums(id, toRemove);
+                // Albums unlinked here must drop the artist from their details too
+                catalogCacheService.evictAlbums(toRemove);
+            }
+
+            Set<Long> toAdd = new HashSet<>(newAlbumIds);
+            toAdd.removeAll(currentAlbumIds);
+            if (!toAdd.isEmpty()) {
+                artistRepository.linkAlbums(id, toAdd);
+            }
+
+            Set<Long> relinked = new HashSet<>(toRemove);
+            relinked.addAll(toAdd);
+            if (!relinked.isEmpty()) {
+                albumRepository.incrementVersions(relinked);
+                artistRepository.recountAlbums(List.of(id));
+                // The count is not written through the entity (and must not be overwritten by it)
+                entityManager.refresh(artist);
+            }
+        }
+
         if (dto.getName() != null) {
             artist.setName(dto.getName());
         }
@@ -125,53 +308,25 @@ public class ArtistService {
             artist.setActive(dto.getActive());
         }
 
-        // Update album links if provided
-        if (dto.getAlbumIds() != null) {
-            // Get current album IDs
-            Set<Long> currentAlbumIds = artist.getAlbums().stream()
-                    .map(Album::getId)
-                    .collect(Collectors.toSet());
-            Set<Long> newAlbumIds = new HashSet<>(dto.getAlbumIds());
-
-            // Remove albums that are no longer in the list
-            Set<Long> toRemove = new HashSet<>(currentAlbumIds);
-            toRemove.removeAll(newAlbumIds);
-            for (Long albumId : toRemove) {
-                Album album = albumRepository.findById(albumId).orElse(null);
-                if (album != null) {
-                    artist.removeAlbum(album);
-                }
-            }
-
-            // Add new albums
-            Set<Long> toAdd = new HashSet<>(newAlbumIds);
-            toAdd.removeAll(currentAlbumIds);
-            List<Album> albumsToAdd = albumRepository.findAllById(toAdd);
-            for (Album album : albumsToAdd) {
-                artist.addAlbum(album);
-            }
-        }
-
         artist = artistRepository.save(artist);
+        suggestService.artistChanged(artist);
+        catalogCacheService.evictArtist(artist);
         log.info("Artist updated: {}", artist.getId());
 
         return toDTO(artist);
     }
 
+    /**
+     * Active artists whose name contains the text (case-insensitive), at most {@code limit}
+     * of them, matched and bounded in SQL on the trigram index
+     */
     @Transactional(readOnly = true)
-    public List<ArtistDTO> searchByName(String name, String sortDir) {
-        List<Artist> artists;
-
-        if (sortDir.equalsIgnoreCase("desc")) {
-            artists = artistRepository.findByNameContainingIgnoreCaseOrderByNameDesc(name);
-        } else {
-            artists = artistRepository.findByNameContainingIgnoreCaseOrderByNameAsc(name);
-        }
-
-        return artists.stream()
-                .filter(Artist::getActive)
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+    public List<ArtistSimpleDTO> searchByName(String name, String sortDir, int limit) {
+        Sort sort = sortDir.equalsIgnoreCase("desc")
+                ? Sort.by("name", "id").descending()
+                : Sort.by("name", "id").ascending();
+        int max = Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT));
+        return artistRepository.searchActiveByName(name.trim(), PageRequest.of(0, max, sort));
     }
 
     @Transactional(readOnly = true)
@@ -198,6 +353,8 @@ public class ArtistService {
         String photoKey = storageService.uploadFile(file);
         artist.setPhotoKey(photoKey);
         artistRepository.save(artist);
+        // Album details only carry id, name and type of their artists, not the photo
+        catalogCacheService.evictArtists(List.of(id));
 
         log.info("Photo uploaded for artist {}: {}", id, photoKey);
         return photoKey;
@@ -214,6 +371,7 @@ public class ArtistService {
             storageService.deleteFile(artist.getPhotoKey());
             artist.setPhotoKey(null);
             artistRepository.save(artist);
+            catalogCacheService.evictArtists(List.of(id));
             log.info("Photo deleted for artist: {}", id);
         }
     }
@@ -238,10 +396,88 @@ public class ArtistService {
 
         artist.setActive(false);
         artistRepository.save(artist);
+        suggestService.artistChanged(artist);
+        catalogCacheService.evictArtist(artist);
 
         log.info("Artist deactivated: {}", id);
     }
 
+    /**
+     * The distinct album ids, checked with one id-only query: the first unknown id is not found
+     */
+    private Set<Long> requireAlbums(Collection<Long> albumIds) {
+        if (albumIds == null || albumIds.isEmpty()) {
+            return Set.of();
+        }
+        Set<Long> ids = new HashSet<>(albumIds);
+        Set<Long> existing = new HashSet<>(albumRepository.findExistingIds(ids));
+        albumIds.stream()
+                .filter(albumId -> !existing.contains(albumId))
+                .findFirst()
+                .ifPresent(albumId -> {
+                    throw new ResourceNotFoundException("Album", albumId);
+                });
+        return ids;
+    }
+
+    private static <T> Page<T> countedPage(Slice<T> slice, long total) {
+        return new PageImpl<>(slice.getContent(), slice.getPageable(), total);
+    }
+
+    private PageResponse<ArtistDTO> toSliceResponse(Slice<Artist> artistSlice, Long approximateTotal,
+                                                    FieldSelection selection) {
+        return PageResponse.fromSlice(artistSlice, toDTOs(artistSlice.getContent(), selection), approximateTotal);
+    }
+
+    private static void requireSupported(FieldSelection selection) {
+        if (!selection.supports(INCLUDES)) {
+            throw new BusinessException("Unsupported include, expected one of " + INCLUDES);
+        }
+    }
+
+    /**
+     * Artists of a list page. Their album collections are never loaded: the album count is a
+     * column, and the albums (when included) are previews, at most {@code artist-list.album-previews}
+     * per artist, read for the whole page with one windowed query. The full discography is on the detail.
+     */
+    private List<ArtistDTO> toDTOs(List<Artist> artists, FieldSelection selection) {
+        requireSupported(selection);
+        List<ArtistDTO> dtos = artists.stream()
+                .map(this::toDTOWithoutAlbums)
+                .collect(Collectors.toList());
+        if (!selection.includes("albums", "albums") || artists.isEmpty()) {
+            return dtos;
+        }
+
+        Map<Long, List<AlbumSummaryDTO>> previews = new HashMap<>();
+        for (AlbumPreviewRow row : artistRepository.findAlbumPreviews(
+                artists.stream().map(Artist::getId).toList(), albumPreviews)) {
+            previews.computeIfAbsent(row.getArtistId(), id -> new ArrayList<>()).add(AlbumSummaryDTO.builder()
+                    .id(row.getAlbumId())
+                    .title(row.getTitle())
+                    .releaseYear(row.getReleaseYear())
+                    .coverUrl(row.getCoverKey() != null ? urlGeneratorService.generateAlbumCoverUrl(row.getCoverKey()) : null)
+                    .build());
+        }
+        dtos.forEach(dto -> dto.setAlbums(previews.getOrDefault(dto.getId(), new ArrayList<>())));
+        return dtos;
+    }
+
+    private ArtistDTO toDTOWithoutAlbums(Artist artist) {
+        ArtistDTO dto = ArtistDTO.fromEntityWithoutAlbums(artist);
+        if (artist.getPhotoKey() != null) {
+            dto.setPhotoUrl(urlGeneratorService.generateArtistPhotoUrl(artist.getPhotoKey()));
+        }
+        return dto;
+    }
+
+    private static Pageable pageRequest(int page, int size, String sortBy, String sortDir) {
+        Sort sort = sortDir.equalsIgnoreCase("desc")
+                ? Sort.by(sortBy).descending()
+                : Sort.by(sortBy).ascending();
+        return PageRequest.of(page, size, sort);
+    }
+
     private ArtistDTO toDTO(Artist artist) {
         ArtistDTO dto = ArtistDTO.fromEntity(artist);
 
@@ -4,27 +4,33 @@ import com.pss.fullstack.exception.BusinessException;
 import com.pss.fullstack.exception.InvalidFileException;
 import com.pss.fullstack.exception.ResourceNotFoundException;
 import com.pss.fullstack.model.Track;
+import com.pss.fullstack.model.TrackSeekIndex;
 import com.pss.fullstack.repository.TrackRepository;
-import io.minio.*;
+import com.pss.fullstack.repository.TrackSeekIndexRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Arrays;
 import java.util.List;
-import java.util.UUID;
+import java.util.zip.CRC32;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class AudioService {
 
-    private final MinioClient minioClient;
     private final StorageService storageService;
     private final TrackRepository trackRepository;
+    private final TrackSeekIndexRepository trackSeekIndexRepository;
+    private final PreviewService previewService;
+    private final CatalogCacheService catalogCacheService;
 
     @Value("${minio.bucket.audio:audio-tracks}")
     private String audioBucket;
@@ -42,8 +48,12 @@ public class AudioService {
     );
 
     /**
-     * Upload audio file for a track
+     * Upload audio file for a track.
+     * Audio is stored content-addressed, so the same file uploaded for several tracks is kept once.
+     * Runs in a transaction so that the storage reference taken for the new file is released again
+     * if the track cannot be saved; the replaced files are released once the change has committed.
      */
+    @Transactional
     public String uploadAudioFile(Long trackId, MultipartFile file) {
         // Validate track exists
         Track track = trackRepository.findById(trackId)
@@ -53,36 +63,42 @@ public class AudioService {
         validateAudioFile(file);
 
         try {
-            // Ensure audio bucket exists
-            ensureAudioBucketExists();
-
-            // Generate unique key for the audio file
-            String fileExtension = getFileExtension(file.getOriginalFilename());
-            String audioKey = String.format("albums/%d/tracks/%d-%s.%s",
-                    track.getAlbum().getId(),
-                    trackId,
-                    UUID.randomUUID().toString(),
-                    fileExtension);
-
-            // Upload to MinIO
-            minioClient.putObject(
-                    PutObjectArgs.builder()
-                            .bucket(audioBucket)
-                            .object(audioKey)
-                            .stream(file.getInputStream(), file.getSize(), -1)
-                            .contentType(file.getContentType())
-                            .build()
-            );
+            String audioFormat = getAudioFormat(file.getContentType());
+            String previousKey = track.getAudioKey();
+            String previousPreviewKey = track.getPreviewKey();
+
+            // Upload to MinIO (or reference the existing object when the content is already stored);
+            // the CRC-32 kept for album archives is computed in the same pass as the content hash
+            CRC32 crc = new CRC32();
+            String audioKey = storageService.storeContentAddressed(
+                    file, file.getSize(), file.getContentType(), audioBucket, "." + audioFormat.toLowerCase(), crc);
 
             // Update track with audio information
             track.setAudioKey(audioKey);
-            track.setAudioFormat(fileExtension.toUpperCase());
+            track.setAudioFormat(audioFormat);
             track.setFileSize(file.getSize());
+            track.setAudioCrc32(crc.getValue());
+            track.setPreviewKey(null);
 
             // Try to extract bitrate (simplified - in production would use a library)
             track.setBitrate(estimateBitrate(file.getSize(), track.getDuration()));
 
             trackRepository.save(track);
+            catalogCacheService.evictAlbum(track.getAlbum().getId());
+            updateSeekIndex(track, file);
+
+            TransactionHooks.afterCommit(() -> {
+                // Drop the reference held on the replaced audio file
+                if (previousKey != null) {
+                    releaseQuietly(trackId, previousKey);
+                }
+                if (previousPreviewKey != null) {
+                    previewService.releasePreview(previousPreviewKey);
+                }
+
+                // The preview clip is cut in the background and attached once ready
+                previewService.generatePreview(trackId, audioKey);
+            });
 
             log.info("Audio file uploaded successfully for track {}: {}", trackId, audioKey);
             return audioKey;
@@ -108,6 +124,56 @@ public class AudioService {
         return storageService.getPresignedUrlForBucket(track.getAudioKey(), audioBucket, 3600);
     }
 
+    /**
+     * Resolve the audio to serve for a track starting at a position in seconds.
+     * MP3 tracks start at the frame playing at that position, found through the seek index.
+     */
+    public AudioSegment getAudioSegment(Long trackId, double seconds) {
+        Track track = trackRepository.findById(trackId)
+                .orElseThrow(() -> new ResourceNotFoundException("Track", trackId));
+
+        if (track.getAudioKey() == null) {
+            throw new BusinessException("Track has no audio file");
+        }
+
+        long offset = 0;
+        if (seconds > 0) {
+            TrackSeekIndex seekIndex = trackSeekIndexRepository.findById(trackId)
+                    .orElseGet(() -> buildSeekIndex(track));
+
+            if (seekIndex == null) {
+                throw new BusinessException("Seeking is only supported for MP3 tracks");
+            }
+
+            long millis = (long) (seconds * 1000);
+            if (millis >= seekIndex.getDurationMs()) {
+                throw new BusinessException("Seek position is beyond the end of the track");
+            }
+            offset = seekIndex.offsetAt(millis);
+        }
+
+        return new AudioSegment(track.getAudioKey(), getContentType(track.getAudioFormat()), offset, track.getFileSize());
+    }
+
+    /**
+     * Copy a track's audio from the segment offset to the end with a single ranged storage read
+     */
+    public void writeAudio(AudioSegment segment, OutputStream out) throws IOException {
+        try (InputStream inputStream = storageService.openObjectStream(audioBucket, segment.audioKey(), segment.offset(), null)) {
+            inputStream.transferTo(out);
+        }
+    }
+
+    /**
+     * Copy {@code length} bytes of a track's audio, starting {@code start} bytes past the segment offset
+     */
+    public void writeAudio(AudioSegment segment, long start, long length, OutputStream out) throws IOException {
+        try (InputStream inputStream = storageService.openObjectStream(
+                audioBucket, segment.audioKey(), segment.offset() + start, length)) {
+            inputStream.transferTo(out);
+        }
+    }
+
     /**
      * Delete audio file for a track
      */
@@ -115,26 +181,31 @@ public class AudioService {
         Track track = trackRepository.findById(trackId)
                 .orElseThrow(() -> new ResourceNotFoundException("Track", trackId));
 
-        if (track.getAudioKey() == null) {
+        String audioKey = track.getAudioKey();
+        if (audioKey == null) {
             return;
         }
 
         try {
-            minioClient.removeObject(
-                    RemoveObjectArgs.builder()
-                            .bucket(audioBucket)
-                            .object(track.getAudioKey())
-                            .build()
-            );
+            // Only removed from MinIO once no other track references the same content
+            storageService.releaseObject(audioBucket, audioKey);
+
+            if (track.getPreviewKey() != null) {
+                previewService.releasePreview(track.getPreviewKey());
+            }
 
             // Clear audio fields
             track.setAudioKey(null);
             track.setAudioFormat(null);
             track.setBitrate(null);
             track.setFileSize(null);
+            track.setAudioCrc32(null);
+            track.setPreviewKey(null);
             trackRepository.save(track);
+            catalogCacheService.evictAlbum(track.getAlbum().getId());
+            trackSeekIndexRepository.deleteById(trackId);
 
-            log.info("Audio file deleted for track {}: {}", trackId, track.getAudioKey());
+            log.info("Audio file deleted for track {}: {}", trackId, audioKey);
 
         } catch (Exception e) {
             log.error("Failed to delete audio file for track {}: {}", trackId, e.getMessage());
@@ -142,6 +213,84 @@ public class AudioService {
         }
     }
 
+    /**
+     * Release a replaced audio file without failing the upload that replaced it
+     */
+    private void releaseQuietly(Long trackId, String audioKey) {
+        try {
+            storageService.releaseObject(audioBucket, audioKey);
+        } catch (Exception e) {
+            log.warn("Could not release previous audio {} for track {}: {}", audioKey, trackId, e.getMessage());
+        }
+    }
+
+    /**
+     * Replace the seek index of a track with one built from its new audio (MP3 only)
+     */
+    private void updateSeekIndex(Track track, MultipartFile file) {
+        trackSeekIndexRepository.deleteById(track.getId());
+        if (!isMp3(track)) {
+            return;
+        }
+
+        try (InputStream inputStream = file.getInputStream()) {
+            saveSeekIndex(track, Mp3SeekIndexer.index(inputStream));
+        } catch (IOException e) {
+            log.warn("Could not build seek index for track {}: {}", track.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Build the missing seek index of an MP3 track from storage (audio uploaded before indexing existed).
+     * Concurrent first seeks may all build it; the first insert is kept and the others read it back.
+     */
+    private TrackSeekIndex buildSeekIndex(Track track) {
+        if (!isMp3(track)) {
+            return null;
+        }
+
+        TrackSeekIndex seekIndex;
+        try (InputStream inputStream = storageService.openObjectStream(audioBucket, track.getAudioKey(), 0, null)) {
+            seekIndex = Mp3SeekIndexer.index(inputStream);
+        } catch (IOException e) {
+            throw new BusinessException("Failed to index audio file: " + e.getMessage());
+        }
+
+        if (seekIndex == null) {
+            log.warn("No MPEG audio frames found for track {}", track.getId());
+            return null;
+        }
+        seekIndex.setTrackId(track.getId());
+        int inserted = trackSeekIndexRepository.insertIfAbsent(
+                track.getId(), seekIndex.getIntervalMs(), seekIndex.getDurationMs(), seekIndex.getOffsets());
+        return inserted == 1 ? seekIndex : trackSeekIndexRepository.findById(track.getId()).orElse(seekIndex);
+    }
+
+    private TrackSeekIndex saveSeekIndex(Track track, TrackSeekIndex seekIndex) {
+        if (seekIndex == null) {
+            log.warn("No MPEG audio frames found for track {}", track.getId());
+            return null;
+        }
+        seekIndex.setTrackId(track.getId());
+        return trackSeekIndexRepository.save(seekIndex);
+    }
+
+    private boolean isMp3(Track track) {
+        return "MP3".equalsIgnoreCase(track.getAudioFormat());
+    }
+
+    private String getContentType(String audioFormat) {
+        if (audioFormat == null) {
+            return "application/octet-stream";
+        }
+        return switch (audioFormat.toUpperCase()) {
+            case "MP3" -> "audio/mpeg";
+            case "OGG" -> "audio/ogg";
+            case "WAV" -> "audio/wav";
+            default -> "application/octet-stream";
+        };
+    }
+
     /**
      * Validate audio file
      */
@@ -161,33 +310,15 @@ public class AudioService {
     }
 
     /**
-     * Ensure audio bucket exists
+     * Audio format of a validated content type; it also names the stored object's suffix,
+     * so the same audio uploaded under different filenames shares one key
      */
-    private void ensureAudioBucketExists() throws Exception {
-        boolean bucketExists = minioClient.bucketExists(
-                BucketExistsArgs.builder()
-                        .bucket(audioBucket)
-                        .build()
-        );
-
-        if (!bucketExists) {
-            minioClient.makeBucket(
-                    MakeBucketArgs.builder()
-                            .bucket(audioBucket)
-                            .build()
-            );
-            log.info("Created audio bucket: {}", audioBucket);
-        }
-    }
-
-    /**
-     * Get file extension from filename
-     */
-    private String getFileExtension(String filename) {
-        if (filename == null || !filename.contains(".")) {
-            return "mp3"; // default
-        }
-        return filename.substring(filename.lastIndexOf(".") + 1).toLowerCase();
+    private String getAudioFormat(String contentType) {
+        return switch (contentType.toLowerCase()) {
+            case "audio/ogg" -> "OGG";
+            case "audio/wav", "audio/wave", "audio/x-wav" -> "WAV";
+            default -> "MP3";
+        };
     }
 
     /**
@@ -201,4 +332,9 @@ public class AudioService {
         // (file_size_in_bytes * 8) / (duration_in_seconds * 1000)
         return (int) ((fileSize * 8) / (duration * 1000));
     }
-}
\ No newline at end of file
+
+    /**
+     * Audio of a track from a byte offset to the end; fileSize is null when unknown
+     */
+    public record AudioSegment(String audioKey, String contentType, long offset, Long fileSize) {}
+}
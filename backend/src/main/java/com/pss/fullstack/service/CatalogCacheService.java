@@ -0,0 +1,88 @@
+package com.pss.fullstack.service;
+
+import com.pss.fullstack.model.Album;
+import com.pss.fullstack.model.Artist;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Invalidation of the album and artist detail caches (see {@code spring.cache} in application.yml).
+ * An album detail embeds its artists and an artist detail embeds summaries of its albums,
+ * so a change to one side evicts the linked entries on the other side as well.
+ * Evictions happen after the commit, so a concurrent read cannot re-cache the old state.
+ * Every eviction also clears the serialized list pages of {@link ResponseCacheService} and the
+ * facet counts, which any catalog change can move. A facet count computed while a change was
+ * committing can outlive the clear, at most until the entry expires. The dashboard statistics
+ * are told as well, and refresh once the writes go quiet ({@link CatalogStatsService}).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogCacheService {
+
+    public static final String ALBUM_DETAILS = "albumDetails";
+    public static final String ARTIST_DETAILS = "artistDetails";
+    public static final String FACETS = "catalogFacets";
+
+    private final CacheManager cacheManager;
+    private final ResponseCacheService responseCacheService;
+    private final CatalogStatsService catalogStatsService;
+
+    /**
+     * Evict an album and its current artists
+     */
+    public void evictAlbum(Album album) {
+        evictAlbums(List.of(album.getId()));
+        evictArtists(album.getArtists().stream().map(Artist::getId).toList());
+    }
+
+    /**
+     * Evict an album only, for changes its artists do not show (tracks, audio)
+     */
+    public void evictAlbum(Long albumId) {
+        evictAlbums(List.of(albumId));
+    }
+
+    /**
+     * Evict an artist and its current albums
+     */
+    public void evictArtist(Artist artist) {
+        evictArtists(List.of(artist.getId()));
+        evictAlbums(artist.getAlbums().stream().map(Album::getId).toList());
+    }
+
+    public void evictAlbums(Collection<Long> albumIds) {
+        evict(ALBUM_DETAILS, albumIds);
+    }
+
+    public void evictArtists(Collection<Long> artistIds) {
+        evict(ARTIST_DETAILS, artistIds);
+    }
+
+    private void evict(String cacheName, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        responseCacheService.invalidate();
+        List<Long> keys = List.copyOf(ids);
+        TransactionHooks.afterCommit(() -> {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                keys.forEach(cache::evict);
+                log.debug("Evicted {} {} entries", keys.size(), cacheName);
+            }
+            Cache facets = cacheManager.getCache(FACETS);
+            if (facets != null) {
+                facets.clear();
+            }
+            catalogStatsService.markStale();
+        });
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.pss.fullstack.service;
+
+import com.pss.fullstack.exception.BusinessException;
+
+import java.util.Locale;
+
+/**
+ * Line-oriented formats of the catalog export and import: NDJSON (one album per line)
+ * or CSV (one album per row, lists joined with ';')
+ */
+public enum CatalogFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    CatalogFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public static CatalogFormat parse(String format) {
+        try {
+            return valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Unsupported format: " + format + " (ndjson or csv)");
+        }
+    }
+}
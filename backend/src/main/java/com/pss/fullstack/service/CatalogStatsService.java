@@ -0,0 +1,150 @@
+package com.pss.fullstack.service;
+
+import com.pss.fullstack.dto.ArtistStatsDTO;
+import com.pss.fullstack.dto.CatalogStatsDTO;
+import com.pss.fullstack.exception.BusinessException;
+import com.pss.fullstack.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Dashboard statistics, read from the artist_stats and catalog_stats materialized views (V23).
+ * The views are refreshed CONCURRENTLY, so reads never wait for a refresh: they see the previous
+ * contents until it completes. A refresh runs every {@code catalog.stats.refresh-ms}; catalog
+ * writes (through {@link CatalogCacheService}) also request one, run once no write has come in
+ * for {@code catalog.stats.debounce-ms}, so an import or a burst of edits costs one refresh.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogStatsService {
+
+    static final int MAX_ARTIST_LIMIT = 100;
+
+    /** Artist ranking orders, mapped to artist_stats columns */
+    private static final Map<String, String> ARTIST_ORDERS = Map.of(
+            "albumCount", "album_count",
+            "trackCount", "track_count",
+            "totalDuration", "total_duration",
+            "latestRelease", "latest_release");
+
+    private static final String ARTIST_COLUMNS = "SELECT ar.id, ar.name, " +
+            "COALESCE(s.album_count, 0) AS album_count, COALESCE(s.track_count, 0) AS track_count, " +
+            "COALESCE(s.total_duration, 0) AS total_duration, s.latest_release ";
+
+    private static final RowMapper<ArtistStatsDTO> ARTIST_STATS = (rs, rowNum) -> ArtistStatsDTO.builder()
+            .artistId(rs.getLong("id"))
+            .name(rs.getString("name"))
+            .albumCount(rs.getLong("album_count"))
+            .trackCount(rs.getLong("track_count"))
+            .totalDuration(rs.getLong("total_duration"))
+            .latestRelease(rs.getObject("latest_release", Integer.class))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${catalog.stats.debounce-ms:30000}")
+    private long debounceMs;
+
+    // Time of the first write not yet covered by a refresh, 0 when there is none
+    private final AtomicLong staleSince = new AtomicLong();
+    // Time of the latest write, which the debounce waits on
+    private volatile long lastWrite;
+
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    public CatalogStatsDTO getCatalogStats() {
+        return jdbcTemplate.queryForObject("SELECT artist_count, album_count, track_count, total_duration, " +
+                "earliest_release, latest_release, refreshed_at FROM catalog_stats", (rs, rowNum) -> {
+            Timestamp refreshedAt = rs.getTimestamp("refreshed_at");
+            return CatalogStatsDTO.builder()
+                    .artistCount(rs.getLong("artist_count"))
+                    .albumCount(rs.getLong("album_count"))
+                    .trackCount(rs.getLong("track_count"))
+                    .totalDuration(rs.getLong("total_duration"))
+                    .earliestRelease(rs.getObject("earliest_release", Integer.class))
+                    .latestRelease(rs.getObject("latest_release", Integer.class))
+                    .refreshedAt(refreshedAt == null ? null : refreshedAt.toLocalDateTime())
+                    .build();
+        });
+    }
+
+    /**
+     * Totals of one artist; an artist created since the last refresh has zero totals
+     */
+    public ArtistStatsDTO getArtistStats(Long artistId) {
+        List<ArtistStatsDTO> stats = jdbcTemplate.query(ARTIST_COLUMNS +
+                "FROM artists ar LEFT JOIN artist_stats s ON s.artist_id = ar.id WHERE ar.id = ?", ARTIST_STATS, artistId);
+        if (stats.isEmpty()) {
+            throw new ResourceNotFoundException("Artist", artistId);
+        }
+        return stats.get(0);
+    }
+
+    /**
+     * Active artists ranked by one of their totals, highest first
+     */
+    public List<ArtistStatsDTO> getTopArtists(String sortBy, int limit) {
+        String column = ARTIST_ORDERS.get(sortBy);
+        if (column == null) {
+            throw new BusinessException("Unsupported sort, expected one of " + ARTIST_ORDERS.keySet());
+        }
+        int max = Math.max(1, Math.min(limit, MAX_ARTIST_LIMIT));
+        return jdbcTemplate.query(ARTIST_COLUMNS +
+                "FROM artist_stats s JOIN artists ar ON ar.id = s.artist_id WHERE ar.active = true " +
+                "ORDER BY s." + column + " DESC NULLS LAST, s.artist_id LIMIT ?", ARTIST_STATS, max);
+    }
+
+    /**
+     * Request a refresh after a committed catalog write
+     */
+    public void markStale() {
+        long now = System.currentTimeMillis();
+        lastWrite = now;
+        staleSince.compareAndSet(0, now);
+    }
+
+    /**
+     * Run the requested refresh once the writes have gone quiet
+     */
+    @Scheduled(initialDelayString = "${catalog.stats.debounce-ms:30000}",
+            fixedDelayString = "${catalog.stats.poll-ms:5000}")
+    public void refreshIfQuiet() {
+        if (staleSince.get() != 0 && System.currentTimeMillis() - lastWrite >= debounceMs) {
+            refresh();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${catalog.stats.initial-delay-ms:60000}",
+            fixedDelayString = "${catalog.stats.refresh-ms:900000}")
+    public void refresh() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        // Writes from here on request the next refresh
+        long since = staleSince.getAndSet(0);
+        try {
+            long start = System.currentTimeMillis();
+            jdbcTemplate.execute("REFRESH MATERIALIZED VIEW CONCURRENTLY artist_stats");
+            jdbcTemplate.execute("REFRESH MATERIALIZED VIEW CONCURRENTLY catalog_stats");
+            log.debug("Refreshed catalog stats in {} ms", System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            staleSince.compareAndSet(0, since);
+            log.warn("Could not refresh catalog stats: {}", e.getMessage());
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.pss.fullstack.service;
+
+import com.pss.fullstack.repository.AlbumRepository;
+import com.pss.fullstack.repository.ArtistRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Approximate totals of the unfiltered album and artist lists for count-free (slice) pages.
+ * The counts run in the background and may be stale by up to one refresh interval;
+ * they are null until the first refresh completes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogTotalsService {
+
+    private final AlbumRepository albumRepository;
+    private final ArtistRepository artistRepository;
+
+    private volatile Long albumTotal;
+    private volatile Long artistTotal;
+
+    @Scheduled(initialDelayString = "${pagination.approximate-total.initial-delay-ms:10000}",
+            fixedDelayString = "${pagination.approximate-total.refresh-ms:300000}")
+    public void refresh() {
+        try {
+            albumTotal = albumRepository.countByActiveTrue();
+            artistTotal = artistRepository.countByActiveTrue();
+            log.debug("Refreshed catalog totals: {} albums, {} artists", albumTotal, artistTotal);
+        } catch (Exception e) {
+            log.warn("Could not refresh catalog totals: {}", e.getMessage());
+        }
+    }
+
+    public Long approximateAlbumTotal() {
+        return albumTotal;
+    }
+
+    public Long approximateArtistTotal() {
+        return artistTotal;
+    }
+
+}
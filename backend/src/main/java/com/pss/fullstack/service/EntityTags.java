@@ -0,0 +1,35 @@
+package com.pss.fullstack.service;
+
+import com.pss.fullstack.dto.VersionRow;
+import org.springframework.data.domain.Slice;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Strong ETags built from entity versions (the {@code VersionRow} queries of the repositories),
+ * so a conditional GET can be answered before any DTO is assembled.
+ */
+final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    static String of(String type, VersionRow row) {
+        return "\"" + type + "-" + row.id() + "-" + row.version() + "-" + row.linkedVersions() + "\"";
+    }
+
+    /**
+     * Tag of a list page: a hash of the normalised query, the versions of its rows and its totals
+     */
+    static String ofList(String type, String query, Slice<VersionRow> rows, Long total) {
+        StringBuilder content = new StringBuilder(query);
+        for (VersionRow row : rows) {
+            content.append('|').append(row.id())
+                    .append(':').append(row.version())
+                    .append(':').append(row.linkedVersions());
+        }
+        content.append('|').append(total).append('|').append(rows.hasNext());
+        return "\"" + type + "-" + DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
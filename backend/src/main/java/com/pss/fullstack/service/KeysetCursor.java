@@ -0,0 +1,45 @@
+package com.pss.fullstack.service;
+
+import com.pss.fullstack.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset pagination cursor: the sort key and id of the last item of a page.
+ * The sort field and direction are encoded too, so a cursor cannot be replayed
+ * against a different ordering.
+ */
+public record KeysetCursor(String sortBy, boolean descending, String value, long id) {
+
+    public String encode() {
+        String raw = sortBy + "|" + (descending ? "desc" : "asc") + "|" + id + "|" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor issued for the given ordering; an empty cursor means the first page
+     */
+    public static KeysetCursor decode(String cursor, String sortBy, boolean descending) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 4);
+            if (parts.length != 4) {
+                throw new BusinessException("Invalid cursor");
+            }
+            Long.parseLong(parts[2]);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Invalid cursor");
+        }
+
+        if (!parts[0].equals(sortBy) || !parts[1].equals(descending ? "desc" : "asc")) {
+            throw new BusinessException("Cursor was issued for a different sort order");
+        }
+        return new KeysetCursor(sortBy, descending, parts[3], Long.parseLong(parts[2]));
+    }
+
+}
@@ -0,0 +1,8 @@
+package com.pss.fullstack.service;
+
+/**
+ * ETag of an offset list page, with the exact total it was computed from (null for slices).
+ * The page query reuses the total instead of counting a second time.
+ */
+public record ListTag(String etag, Long total) {
+}
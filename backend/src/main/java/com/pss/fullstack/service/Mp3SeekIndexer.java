@@ -0,0 +1,179 @@
+package com.pss.fullstack.service;
+
+import com.pss.fullstack.model.TrackSeekIndex;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Builds the seek table of an MP3 stream by walking its frame headers.
+ * Frames are read one at a time, so memory use does not depend on the file size.
+ * The Xing/VBRI TOC is not used: it only has 1% resolution, while the frame walk is exact.
+ */
+final class Mp3SeekIndexer {
+
+    static final int INTERVAL_MS = 250;
+
+    private static final int MAX_FRAME_SIZE = 2881;
+
+    // kbps by [MPEG-1 L1, L2, L3, MPEG-2/2.5 L1, L2/L3][bitrate index]
+    private static final int[][] BITRATES = {
+            {0, 32, 64, 96, 128, 160, 192, 224, 256, 288, 320, 352, 384, 416, 448},
+            {0, 32, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320, 384},
+            {0, 32, 40, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320},
+            {0, 32, 48, 56, 64, 80, 96, 112, 128, 144, 160, 176, 192, 224, 256},
+            {0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160}
+    };
+
+    private static final int[][] SAMPLE_RATES = {
+            {11025, 12000, 8000},   // MPEG-2.5
+            null,                   // reserved
+            {22050, 24000, 16000},  // MPEG-2
+            {44100, 48000, 32000}   // MPEG-1
+    };
+
+    private Mp3SeekIndexer() {
+    }
+
+    /**
+     * Index an MP3 stream, or return null when no MPEG audio frames are found
+     */
+    static TrackSeekIndex index(InputStream source) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(source, 64 * 1024);
+        ByteArrayOutputStream table = new ByteArrayOutputStream();
+        DataOutputStream offsets = new DataOutputStream(table);
+
+        byte[] header = new byte[4];
+        byte[] body = new byte[MAX_FRAME_SIZE];
+        long position = skipId3v2(in);
+        long samples = 0;
+        long entries = 0;
+        FrameHeader first = null;
+
+        while (true) {
+            in.mark(header.length);
+            if (in.readNBytes(header, 0, header.length) < header.length) {
+                break;
+            }
+
+            FrameHeader frame = FrameHeader.parse(header);
+            if (frame == null || (first != null && !first.sameStream(frame))) {
+                // Not a frame boundary (garbage, ID3v1 tag, false sync): advance one byte
+                in.reset();
+                in.skipNBytes(1);
+                position++;
+                continue;
+            }
+
+            int bodyLength = frame.length() - header.length;
+            if (in.readNBytes(body, 0, bodyLength) < bodyLength) {
+                break; // truncated last frame
+            }
+
+            if (first == null) {
+                first = frame;
+                if (frame.isInfoFrame(body)) {
+                    // Xing/Info/VBRI header frame carries no audio
+                    position += frame.length();
+                    continue;
+                }
+            }
+
+            samples += frame.samplesPerFrame();
+            long endMs = samples * 1000 / frame.sampleRate();
+            while (entries * INTERVAL_MS < endMs) {
+                offsets.writeInt((int) position);
+                entries++;
+            }
+            position += frame.length();
+        }
+
+        if (entries == 0) {
+            return null;
+        }
+
+        return TrackSeekIndex.builder()
+                .intervalMs(INTERVAL_MS)
+                .durationMs(samples * 1000 / first.sampleRate())
+                .offsets(table.toByteArray())
+                .build();
+    }
+
+    private static long skipId3v2(BufferedInputStream in) throws IOException {
+        byte[] tag = new byte[10];
+        in.mark(tag.length);
+        if (in.readNBytes(tag, 0, tag.length) < tag.length
+                || !"ID3".equals(new String(tag, 0, 3, StandardCharsets.ISO_8859_1))) {
+            in.reset();
+            return 0;
+        }
+
+        // Syncsafe size: 4 x 7 bits, excluding the 10-byte header and the optional footer
+        long size = ((tag[6] & 0x7F) << 21) | ((tag[7] & 0x7F) << 14) | ((tag[8] & 0x7F) << 7) | (tag[9] & 0x7F);
+        if ((tag[5] & 0x10) != 0) {
+            size += 10;
+        }
+        in.skipNBytes(size);
+        return tag.length + size;
+    }
+
+    private record FrameHeader(int version, int layer, int sampleRate, int length, int samplesPerFrame, boolean mono) {
+
+        static FrameHeader parse(byte[] header) {
+            if ((header[0] & 0xFF) != 0xFF || (header[1] & 0xE0) != 0xE0) {
+                return null;
+            }
+
+            int version = (header[1] >> 3) & 0x03;     // 0 = 2.5, 2 = 2, 3 = 1
+            int layer = 4 - ((header[1] >> 1) & 0x03);  // 1..3, 4 = reserved
+            int bitrateIndex = (header[2] >> 4) & 0x0F;
+            int sampleRateIndex = (header[2] >> 2) & 0x03;
+            int padding = (header[2] >> 1) & 0x01;
+
+            if (version == 1 || layer == 4 || bitrateIndex == 0 || bitrateIndex == 15 || sampleRateIndex == 3) {
+                return null; // reserved values and free-format streams
+            }
+
+            boolean mpeg1 = version == 3;
+            int bitrate = BITRATES[mpeg1 ? layer - 1 : (layer == 1 ? 3 : 4)][bitrateIndex] * 1000;
+            int sampleRate = SAMPLE_RATES[version][sampleRateIndex];
+
+            int length;
+            int samplesPerFrame;
+            if (layer == 1) {
+                length = (12 * bitrate / sampleRate + padding) * 4;
+                samplesPerFrame = 384;
+            } else if (layer == 3 && !mpeg1) {
+                length = 72 * bitrate / sampleRate + padding;
+                samplesPerFrame = 576;
+            } else {
+                length = 144 * bitrate / sampleRate + padding;
+                samplesPerFrame = 1152;
+            }
+
+            boolean mono = ((header[3] >> 6) & 0x03) == 3;
+            return new FrameHeader(version, layer, sampleRate, length, samplesPerFrame, mono);
+        }
+
+        boolean sameStream(FrameHeader other) {
+            return version == other.version && layer == other.layer && sampleRate == other.sampleRate;
+        }
+
+        /**
+         * Whether the frame body (after the 4-byte header) starts with a Xing, Info or VBRI tag
+         */
+        boolean isInfoFrame(byte[] body) {
+            int sideInfo = version == 3 ? (mono ? 17 : 32) : (mono ? 9 : 17);
+            return hasTag(body, sideInfo, "Xing") || hasTag(body, sideInfo, "Info") || hasTag(body, 32, "VBRI");
+        }
+
+        private boolean hasTag(byte[] body, int offset, String tag) {
+            return offset + tag.length() <= length - 4
+                    && tag.equals(new String(body, offset, tag.length(), StandardCharsets.ISO_8859_1));
+        }
+    }
+}
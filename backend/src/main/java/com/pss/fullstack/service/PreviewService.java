@@ -0,0 +1,131 @@
+package com.pss.fullstack.service;
+
+import com.pss.fullstack.model.Track;
+import com.pss.fullstack.model.TrackSeekIndex;
+import com.pss.fullstack.repository.TrackRepository;
+import com.pss.fullstack.repository.TrackSeekIndexRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+/**
+ * Generates the short preview clip played on browse and search pages.
+ * MP3 previews are a frame-exact excerpt cut with the seek index; WAV previews are
+ * re-encoded as 8-bit mono at 11 kHz. Clips are stored content-addressed, so they are
+ * immutable and can be cached by clients indefinitely.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PreviewService {
+
+    static final int PREVIEW_SECONDS = 30;
+
+    private final TrackRepository trackRepository;
+    private final TrackSeekIndexRepository trackSeekIndexRepository;
+    private final StorageService storageService;
+    private final CatalogCacheService catalogCacheService;
+
+    @Value("${minio.bucket.audio:audio-tracks}")
+    private String audioBucket;
+
+    @Value("${minio.bucket.previews:audio-previews}")
+    private String previewBucket;
+
+    /**
+     * Generate the preview of a track's audio in the background. The result is discarded
+     * when the track's audio changed in the meantime.
+     */
+    @Async("previewExecutor")
+    public void generatePreview(Long trackId, String audioKey) {
+        try {
+            Optional<Track> track = trackRepository.findById(trackId)
+                    .filter(t -> audioKey.equals(t.getAudioKey()));
+            if (track.isEmpty()) {
+                log.debug("Skipping preview for track {}: audio changed", trackId);
+                return;
+            }
+
+            String previewKey = storePreview(track.get());
+            if (previewKey != null) {
+                attachPreview(trackId, audioKey, previewKey);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to generate preview for track {}: {}", trackId, e.getMessage());
+        }
+    }
+
+    /**
+     * Release a preview clip without failing the caller
+     */
+    public void releasePreview(String previewKey) {
+        try {
+            storageService.releaseObject(previewBucket, previewKey);
+        } catch (Exception e) {
+            log.warn("Could not release preview {}: {}", previewKey, e.getMessage());
+        }
+    }
+
+    private String storePreview(Track track) throws IOException {
+        String format = track.getAudioFormat() == null ? "" : track.getAudioFormat().toUpperCase();
+
+        switch (format) {
+            case "MP3" -> {
+                TrackSeekIndex seekIndex = trackSeekIndexRepository.findById(track.getId()).orElse(null);
+                if (seekIndex == null) {
+                    log.debug("No seek index for track {}, skipping preview", track.getId());
+                    return null;
+                }
+
+                // Everything before the frame playing at the cut point (ID3 tag included)
+                long end = seekIndex.getDurationMs() > PREVIEW_SECONDS * 1000L
+                        ? seekIndex.offsetAt(PREVIEW_SECONDS * 1000L)
+                        : track.getFileSize();
+                return storageService.storeContentAddressed(
+                        () -> storageService.openObjectStream(audioBucket, track.getAudioKey(), 0, end),
+                        end, "audio/mpeg", previewBucket, ".mp3");
+            }
+            case "WAV" -> {
+                byte[] preview;
+                try (InputStream inputStream = storageService.openObjectStream(audioBucket, track.getAudioKey(), 0, null)) {
+                    preview = WavPreviewEncoder.encode(inputStream, PREVIEW_SECONDS);
+                }
+                if (preview == null) {
+                    log.debug("Track {} is not PCM WAV, skipping preview", track.getId());
+                    return null;
+                }
+                return storageService.storeContentAddressed(
+                        new ByteArrayResource(preview), preview.length, "audio/wav", previewBucket, ".wav");
+            }
+            default -> {
+                log.debug("No preview encoder for format {} (track {})", format, track.getId());
+                return null;
+            }
+        }
+    }
+
+    private void attachPreview(Long trackId, String audioKey, String previewKey) {
+        Track track = trackRepository.findById(trackId).orElse(null);
+        if (track == null || !audioKey.equals(track.getAudioKey())) {
+            releasePreview(previewKey);
+            return;
+        }
+
+        String previousKey = track.getPreviewKey();
+        track.setPreviewKey(previewKey);
+        trackRepository.save(track);
+        catalogCacheService.evictAlbum(track.getAlbum().getId());
+
+        if (previousKey != null) {
+            releasePreview(previousKey);
+        }
+        log.info("Preview generated for track {}: {}", trackId, previewKey);
+    }
+}
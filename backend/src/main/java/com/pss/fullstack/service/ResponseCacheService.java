@@ -0,0 +1,97 @@
+package com.pss.fullstack.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized JSON of the hot list pages, stored with a gzipped copy and the ETag the controller
+ * gave them, so that repeat requests are answered without queries or Jackson and revalidate
+ * against the same tag either way (see {@code ListResponseCacheFilter}).
+ * The gzipped copy is tagged with the same tag and a "-gzip" suffix.
+ * Any catalog change clears it (through {@link CatalogCacheService}). A response rendered while
+ * a change was committing is not stored: {@link #put} compares the generation it was rendered at.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ResponseCacheService {
+
+    public static final String LIST_RESPONSES = "listResponses";
+
+    private final CacheManager cacheManager;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    public record CachedResponse(String contentType, byte[] body, byte[] gzipped, String etag, String gzipEtag) {
+    }
+
+    public CachedResponse get(String key) {
+        Cache cache = cache();
+        return cache == null ? null : cache.get(key, CachedResponse.class);
+    }
+
+    /**
+     * The generation to pass to {@link #put}, read before rendering the response
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Store a response rendered at the given generation with its (quoted) ETag,
+     * unless the catalog has changed since
+     */
+    public CachedResponse put(String key, long renderedAt, String contentType, String etag, byte[] body) {
+        String gzipEtag = etag.substring(0, etag.length() - 1) + "-gzip\"";
+        CachedResponse response = new CachedResponse(contentType, body, gzip(body), etag, gzipEtag);
+
+        Cache cache = cache();
+        if (cache == null || generation.get() != renderedAt) {
+            return response;
+        }
+        cache.put(key, response);
+        // an invalidation that raced with the put must not leave it behind
+        if (generation.get() != renderedAt) {
+            cache.evict(key);
+        }
+        return response;
+    }
+
+    /**
+     * Drop every cached response once the current transaction commits
+     */
+    public void invalidate() {
+        TransactionHooks.afterCommit(() -> {
+            generation.incrementAndGet();
+            Cache cache = cache();
+            if (cache != null) {
+                cache.clear();
+                log.debug("Cleared {}", LIST_RESPONSES);
+            }
+        });
+    }
+
+    private Cache cache() {
+        return cacheManager.getCache(LIST_RESPONSES);
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.pss.fullstack.service;
+
+import com.pss.fullstack.dto.SearchHitDTO;
+import com.pss.fullstack.dto.SearchHitDTO.Type;
+import com.pss.fullstack.exception.BusinessException;
+import com.pss.fullstack.repository.AlbumRepository;
+import com.pss.fullstack.repository.ArtistRepository;
+import com.pss.fullstack.repository.TrackRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Ranked search across album titles, artist names and track titles.
+ * Each kind is ranked by the database (full-text rank or trigram word similarity,
+ * whichever is higher); the best hits of the three are merged by score.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SearchService {
+
+    static final int MAX_LIMIT = 50;
+    static final int MAX_QUERY_LENGTH = 100;
+
+    private final AlbumRepository albumRepository;
+    private final ArtistRepository artistRepository;
+    private final TrackRepository trackRepository;
+
+    @Transactional(readOnly = true)
+    public List<SearchHitDTO> search(String query, int limit) {
+        String q = query == null ? "" : query.trim();
+        if (q.isEmpty()) {
+            throw new BusinessException("Search query must not be empty");
+        }
+        if (q.length() > MAX_QUERY_LENGTH) {
+            throw new BusinessException("Search query must be at most " + MAX_QUERY_LENGTH + " characters");
+        }
+        int max = Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        List<SearchHitDTO> hits = new ArrayList<>();
+        albumRepository.search(q, max).forEach(row -> hits.add(SearchHitDTO.from(Type.ALBUM, row)));
+        artistRepository.search(q, max).forEach(row -> hits.add(SearchHitDTO.from(Type.ARTIST, row)));
+        trackRepository.search(q, max).forEach(row -> hits.add(SearchHitDTO.from(Type.TRACK, row)));
+
+        hits.sort(Comparator.comparingDouble(SearchHitDTO::getScore).reversed());
+        log.debug("Search '{}' matched {} hits", q, hits.size());
+        return hits.size() > max ? new ArrayList<>(hits.subList(0, max)) : hits;
+    }
+
+}
@@ -3,23 +3,38 @@ package com.pss.fullstack.service;
 import com.pss.fullstack.exception.BusinessException;
 import com.pss.fullstack.exception.InvalidFileException;
 import com.pss.fullstack.exception.ResourceNotFoundException;
+import com.pss.fullstack.repository.StoredObjectRepository;
 import io.minio.*;
 import io.minio.errors.ErrorResponseException;
 import io.minio.http.Method;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 import jakarta.annotation.PostConstruct;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.Checksum;
 
 @Service
 @Slf4j
@@ -32,6 +47,8 @@ public class StorageService {
     );
 
     private final MinioClient minioClient;
+    private final StoredObjectRepository storedObjectRepository;
+    private final PlatformTransactionManager transactionManager;
 
     @Value("${minio.bucket-name}")
     private String bucketName;
@@ -56,7 +73,8 @@ public class StorageService {
     }
 
     /**
-     * Upload a file to MinIO and return the object key
+     * Upload a file to MinIO and return the object key.
+     * Identical content is stored once: a re-upload only takes another reference on the existing object.
      */
     public String uploadFile(MultipartFile file) {
         // Validate file size
@@ -70,36 +88,84 @@ public class StorageService {
             throw new InvalidFileException("Invalid file type. Only images (JPEG, PNG, GIF, WebP) are allowed");
         }
 
+        // The suffix comes from the validated type, not the client's filename, so identical content shares one key
+        return storeContentAddressed(file, file.getSize(), contentType, bucketName, getExtensionFromContentType(contentType));
+    }
+
+    /**
+     * Store content under a key derived from its SHA-256 and take a reference on it.
+     * The content is hashed in a streaming pass first, so a re-upload of an existing
+     * object costs no storage write. The source must be readable more than once
+     * (multipart uploads are spooled by the servlet container).
+     * The reference is committed at once; if the caller's transaction rolls back, it is released again.
+     */
+    public String storeContentAddressed(InputStreamSource source, long size, String contentType,
+                                        String bucket, String extension) {
+        return storeContentAddressed(source, size, contentType, bucket, extension, null);
+    }
+
+    /**
+     * As above, also feeding the content to {@code checksum} during the hashing pass,
+     * so callers that need another checksum (the CRC-32 of audio files) don't read the content again
+     */
+    public String storeContentAddressed(InputStreamSource source, long size, String contentType,
+                                        String bucket, String extension, Checksum checksum) {
         try {
-            ensureBucketExists();
+            String sha256 = sha256Hex(source, checksum);
+            String objectKey = sha256 + extension;
 
-            String originalFilename = file.getOriginalFilename();
-            String extension = originalFilename != null
-                    ? originalFilename.substring(originalFilename.lastIndexOf("."))
-                    : ".jpg";
+            if (storedObjectRepository.incrementRefCount(bucket, objectKey) > 0) {
+                releaseOnRollback(bucket, objectKey);
+                log.info("Deduplicated upload, reusing object {} in bucket {}", objectKey, bucket);
+                return objectKey;
+            }
 
-            String objectKey = UUID.randomUUID().toString() + extension;
+            ensureBucketExists(bucket);
 
-            try (InputStream inputStream = file.getInputStream()) {
+            try (InputStream inputStream = source.getInputStream()) {
                 minioClient.putObject(
                         PutObjectArgs.builder()
-                                .bucket(bucketName)
+                                .bucket(bucket)
                                 .object(objectKey)
-                                .stream(inputStream, file.getSize(), -1)
-                                .contentType(file.getContentType())
+                                .stream(inputStream, size, -1)
+                                .contentType(contentType)
                                 .build()
                 );
             }
 
-            log.info("File uploaded successfully: {}", objectKey);
+            storedObjectRepository.insertOrIncrement(bucket, objectKey, sha256, size, contentType);
+            releaseOnRollback(bucket, objectKey);
+
+            log.info("File uploaded successfully to bucket {}: {}", bucket, objectKey);
             return objectKey;
 
+        } catch (BusinessException e) {
+            throw e;
         } catch (Exception e) {
-            log.error("Error uploading file: {}", e.getMessage());
+            log.error("Error uploading file to bucket {}: {}", bucket, e.getMessage());
             throw new BusinessException("Failed to upload file: " + e.getMessage());
         }
     }
 
+    /**
+     * Give back a reference taken for a transaction that rolled back, so the object is not kept
+     * alive by a row that was never written. The release runs in a new transaction because the
+     * rolled-back one is still bound when the hook runs.
+     */
+    private void releaseOnRollback(String bucket, String objectKey) {
+        TransactionHooks.afterRollback(() -> {
+            TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+            requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            try {
+                requiresNew.executeWithoutResult(status -> releaseObject(bucket, objectKey));
+                log.info("Released reference on {} in bucket {} after rollback", objectKey, bucket);
+            } catch (Exception e) {
+                log.warn("Could not release reference on {} in bucket {} after rollback: {}",
+                        objectKey, bucket, e.getMessage());
+            }
+        });
+    }
+
     /**
      * Generate a presigned URL for accessing a file (30 minutes expiration)
      */
@@ -158,13 +224,35 @@ public class StorageService {
     }
 
     /**
-     * Delete a file from MinIO
+     * Release a reference on a file in the default bucket, deleting it when unreferenced
      */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void deleteFile(String objectKey) {
+        releaseObject(bucketName, objectKey);
+    }
+
+    /**
+     * Release a reference on an object. The object is removed from MinIO only when the
+     * last reference goes away; objects stored before deduplication are removed directly.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void releaseObject(String bucket, String objectKey) {
         try {
+            boolean tracked = storedObjectRepository.decrementRefCount(bucket, objectKey) > 0;
+
+            if (tracked && storedObjectRepository.deleteIfUnreferenced(bucket, objectKey) == 0) {
+                log.info("Released reference on {} in bucket {}, object still in use", objectKey, bucket);
+                return;
+            }
+
+            if (!tracked && storedObjectRepository.existsByBucketAndObjectKey(bucket, objectKey)) {
+                log.warn("Object {} in bucket {} has no references left to release", objectKey, bucket);
+                return;
+            }
+
             minioClient.removeObject(
                     RemoveObjectArgs.builder()
-                            .bucket(bucketName)
+                            .bucket(bucket)
                             .object(objectKey)
                             .build()
             );
@@ -233,6 +321,31 @@ public class StorageService {
         }
     }
 
+    /**
+     * Open a stream over a byte range of an object. The caller must close the stream.
+     * A null length reads to the end of the object.
+     */
+    public InputStream openObjectStream(String bucket, String objectKey, long offset, Long length) {
+        try {
+            return minioClient.getObject(
+                    GetObjectArgs.builder()
+                            .bucket(bucket)
+                            .object(objectKey)
+                            .offset(offset)
+                            .length(length)
+                            .build()
+            );
+        } catch (ErrorResponseException e) {
+            if ("NoSuchKey".equals(e.errorResponse().code())) {
+                throw new ResourceNotFoundException("File", "key", objectKey);
+            }
+            throw new BusinessException("Failed to retrieve file: " + e.getMessage());
+        } catch (Exception e) {
+            log.error("Error opening object {} in bucket {}", objectKey, bucket, e);
+            throw new BusinessException("Failed to retrieve file");
+        }
+    }
+
     /**
      * Get object content type from MinIO metadata
      */
@@ -297,6 +410,16 @@ public class StorageService {
         return artistPhotoBucket;
     }
 
+    private String sha256Hex(InputStreamSource source, Checksum checksum) throws IOException, NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        InputStream content = source.getInputStream();
+        try (InputStream inputStream = new DigestInputStream(
+                checksum == null ? content : new CheckedInputStream(content, checksum), digest)) {
+            inputStream.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
     private String getExtensionFromContentType(String contentType) {
         if (contentType == null) return ".jpg";
         return switch (contentType.toLowerCase()) {
@@ -0,0 +1,463 @@
+package com.pss.fullstack.service;
+
+import com.pss.fullstack.dto.SearchHitDTO.Type;
+import com.pss.fullstack.dto.SuggestionDTO;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory prefix index over artist names, album and track titles for typeahead.
+ * <p>
+ * Every indexed text gets a dense int slot. Each word of the text contributes its
+ * front-padded trigrams ("  u", " us", "use" for "use") to sorted postings lists of slots,
+ * so a word prefix is answered by intersecting postings of the prefix's trigrams and
+ * checking the survivors against the text. Keys are primitive throughout: trigrams are packed into a
+ * long, (type, id) pairs too, and postings are plain int arrays.
+ * <p>
+ * Updates append a new slot and tombstone the old one; the index is compacted once half
+ * of the slots are dead. Reads and writes are guarded by a read-write lock.
+ */
+final class SuggestIndex {
+
+    // Stop collecting matches after this many, so one-letter prefixes stay fast
+    static final int MAX_CANDIDATES = 2_000;
+
+    private static final Pattern DROPPED = Pattern.compile("[\\p{M}'’]+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Type[] TYPES = Type.values();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Slot data; the slot texts are normalized with a leading space (" use your illusion i")
+    private long[] slotKeys = new long[1024];
+    private long[] slotAlbumIds = new long[1024];
+    // Track slots of one album form a chain: its latest slot, then nextTrackSlot back to -1
+    private int[] nextTrackSlot = new int[1024];
+    private String[] slotTexts = new String[1024];
+    private String[] slotDisplay = new String[1024];
+    private int slotCount;
+    private final BitSet dead = new BitSet();
+    private int deadCount;
+
+    private final LongIntMap slotByKey = new LongIntMap();
+    private final LongIntMap trackChainByAlbum = new LongIntMap();
+    private final LongIntMap postingsByGram = new LongIntMap();
+    private int[][] postings = new int[1024][];
+    private int[] postingSizes = new int[1024];
+    private int postingsCount;
+
+    /**
+     * Index a text, replacing the previous text of the same document
+     */
+    void put(Type type, long id, String text, long albumId) {
+        lock.writeLock().lock();
+        try {
+            long key = key(type, id);
+            int existing = slotByKey.get(key);
+            if (existing >= 0) {
+                if (slotDisplay[existing].equals(text) && slotAlbumIds[existing] == albumId) {
+                    return;
+                }
+                tombstone(existing);
+            }
+            slotByKey.put(key, addSlot(key, text, albumId));
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Type type, long id) {
+        lock.writeLock().lock();
+        try {
+            int slot = slotByKey.remove(key(type, id));
+            if (slot >= 0) {
+                tombstone(slot);
+                compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove every track of an album, following the album's chain of track slots
+     */
+    void removeTracksOf(long albumId) {
+        lock.writeLock().lock();
+        try {
+            // Tombstoned slots stay chained until compaction; a track moved to another album
+            // leaves a dead slot here, its live slot is on the other album's chain
+            for (int slot = trackChainByAlbum.remove(albumId); slot >= 0; slot = nextTrackSlot[slot]) {
+                if (!dead.get(slot)) {
+                    slotByKey.remove(slotKeys[slot]);
+                    tombstone(slot);
+                }
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return slotCount - deadCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Documents in which every word of the query is the prefix of a word, best first:
+     * whole-text prefix matches, then albums, artists and tracks in that order, then shorter texts
+     */
+    List<SuggestionDTO> suggest(String query, int limit) {
+        String[] tokens = tokens(query);
+        if (tokens.length == 0 || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            // Per query word, the shortest postings list among its trigrams (a missing trigram
+            // means no match), smallest list first. The trigram lists of one word overlap heavily,
+            // so intersecting them all buys little: survivors are checked against the text anyway.
+            int[][] lists = new int[tokens.length][];
+            int[] sizes = new int[tokens.length];
+            for (int t = 0; t < tokens.length; t++) {
+                String padded = "  " + tokens[t];
+                int shortest = -1;
+                for (int i = 0; i + 3 <= padded.length(); i++) {
+                    int posting = postingsByGram.get(gram(padded, i));
+                    if (posting < 0) {
+                        return List.of();
+                    }
+                    if (shortest < 0 || postingSizes[posting] < postingSizes[shortest]) {
+                        shortest = posting;
+                    }
+                }
+                int at = t;
+                while (at > 0 && sizes[at - 1] > postingSizes[shortest]) {
+                    lists[at] = lists[at - 1];
+                    sizes[at] = sizes[at - 1];
+                    at--;
+                }
+                lists[at] = postings[shortest];
+                sizes[at] = postingSizes[shortest];
+            }
+            int[] cursors = new int[tokens.length];
+
+            String[] needles = new String[tokens.length];
+            for (int i = 0; i < tokens.length; i++) {
+                needles[i] = " " + tokens[i];
+            }
+
+            int[] best = new int[limit];
+            long[] bestRanks = new long[limit];
+            int found = 0;
+            int candidates = 0;
+
+            candidates:
+            for (int i = 0; i < sizes[0] && candidates < MAX_CANDIDATES; i++) {
+                int slot = lists[0][i];
+                if (dead.get(slot)) {
+                    continue;
+                }
+                for (int j = 1; j < lists.length; j++) {
+                    cursors[j] = advance(lists[j], sizes[j], cursors[j], slot);
+                    if (cursors[j] == sizes[j]) {
+                        break candidates;
+                    }
+                    if (lists[j][cursors[j]] != slot) {
+                        continue candidates;
+                    }
+                }
+                String text = slotTexts[slot];
+                for (String needle : needles) {
+                    if (!text.contains(needle)) {
+                        continue candidates;
+                    }
+                }
+                candidates++;
+
+                // Keep the best `limit` slots, ordered by rank (insertion into a small array)
+                long rank = rank(slot, needles[0]);
+                if (found == limit && rank >= bestRanks[limit - 1]) {
+                    continue;
+                }
+                int at = found < limit ? found++ : limit - 1;
+                while (at > 0 && bestRanks[at - 1] > rank) {
+                    best[at] = best[at - 1];
+                    bestRanks[at] = bestRanks[at - 1];
+                    at--;
+                }
+                best[at] = slot;
+                bestRanks[at] = rank;
+            }
+
+            List<SuggestionDTO> suggestions = new ArrayList<>(found);
+            for (int i = 0; i < found; i++) {
+                suggestions.add(toSuggestion(best[i]));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * First position at or after {@code from} whose slot is >= {@code slot}, galloping then bisecting
+     */
+    private static int advance(int[] list, int size, int from, int slot) {
+        int step = 1;
+        int low = from;
+        int high = from;
+        while (high < size && list[high] < slot) {
+            low = high + 1;
+            high += step;
+            step <<= 1;
+        }
+        high = Math.min(high, size);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (list[mid] < slot) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private long rank(int slot, String firstNeedle) {
+        String text = slotTexts[slot];
+        long prefix = text.startsWith(firstNeedle) ? 0 : 1;
+        long type = slotKeys[slot] & 3;
+        return (prefix << 60) | (type << 56) | ((long) Math.min(text.length(), 0xFFFF) << 32) | slot;
+    }
+
+    private SuggestionDTO toSuggestion(int slot) {
+        Type type = TYPES[(int) (slotKeys[slot] & 3)];
+        return SuggestionDTO.builder()
+                .type(type)
+                .id(slotKeys[slot] >>> 2)
+                .text(slotDisplay[slot])
+                .albumId(type == Type.TRACK ? slotAlbumIds[slot] : null)
+                .build();
+    }
+
+    private int addSlot(long key, String text, long albumId) {
+        if (slotCount == slotKeys.length) {
+            int capacity = slotCount * 2;
+            slotKeys = Arrays.copyOf(slotKeys, capacity);
+            slotAlbumIds = Arrays.copyOf(slotAlbumIds, capacity);
+            nextTrackSlot = Arrays.copyOf(nextTrackSlot, capacity);
+            slotTexts = Arrays.copyOf(slotTexts, capacity);
+            slotDisplay = Arrays.copyOf(slotDisplay, capacity);
+        }
+
+        int slot = slotCount++;
+        String[] words = tokens(text);
+        slotKeys[slot] = key;
+        slotAlbumIds[slot] = albumId;
+        slotTexts[slot] = " " + String.join(" ", words);
+        slotDisplay[slot] = text;
+        if (TYPES[(int) (key & 3)] == Type.TRACK && albumId != 0) {
+            nextTrackSlot[slot] = trackChainByAlbum.get(albumId);
+            trackChainByAlbum.put(albumId, slot);
+        }
+
+        for (String word : words) {
+            String padded = "  " + word;
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                addPosting(gram(padded, i), slot);
+            }
+        }
+        return slot;
+    }
+
+    private void addPosting(long gram, int slot) {
+        int posting = postingsByGram.get(gram);
+        if (posting < 0) {
+            if (postingsCount == postings.length) {
+                postings = Arrays.copyOf(postings, postingsCount * 2);
+                postingSizes = Arrays.copyOf(postingSizes, postingsCount * 2);
+            }
+            posting = postingsCount++;
+            postings[posting] = new int[4];
+            postingsByGram.put(gram, posting);
+        }
+
+        int size = postingSizes[posting];
+        int[] slots = postings[posting];
+        if (size > 0 && slots[size - 1] == slot) {
+            return; // gram repeated within the same text
+        }
+        if (size == slots.length) {
+            slots = postings[posting] = Arrays.copyOf(slots, size * 2);
+        }
+        slots[size] = slot;
+        postingSizes[posting] = size + 1;
+    }
+
+    private void tombstone(int slot) {
+        dead.set(slot);
+        deadCount++;
+        slotTexts[slot] = null;
+        slotDisplay[slot] = null;
+    }
+
+    /**
+     * Rebuild slots and postings from the live documents once half of the slots are dead
+     */
+    private void compactIfNeeded() {
+        if (deadCount < 1024 || deadCount * 2 < slotCount) {
+            return;
+        }
+
+        long[] keys = slotKeys;
+        long[] albumIds = slotAlbumIds;
+        String[] display = slotDisplay;
+        int count = slotCount;
+        int capacity = Math.max(1024, Integer.highestOneBit(Math.max(1, count - deadCount)) * 2);
+
+        slotKeys = new long[capacity];
+        slotAlbumIds = new long[capacity];
+        nextTrackSlot = new int[capacity];
+        slotTexts = new String[capacity];
+        slotDisplay = new String[capacity];
+        slotCount = 0;
+        dead.clear();
+        deadCount = 0;
+        slotByKey.clear();
+        trackChainByAlbum.clear();
+        postingsByGram.clear();
+        postings = new int[1024][];
+        postingSizes = new int[1024];
+        postingsCount = 0;
+
+        for (int slot = 0; slot < count; slot++) {
+            if (display[slot] != null) {
+                slotByKey.put(keys[slot], addSlot(keys[slot], display[slot], albumIds[slot]));
+            }
+        }
+    }
+
+    private static long key(Type type, long id) {
+        return (id << 2) | type.ordinal();
+    }
+
+    private static long gram(String padded, int at) {
+        return ((long) padded.charAt(at) << 32) | ((long) padded.charAt(at + 1) << 16) | padded.charAt(at + 2);
+    }
+
+    /**
+     * Lower-cased, accent-free words of a text; apostrophes are dropped ("don't" is "dont")
+     */
+    static String[] tokens(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        String plain = DROPPED.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        String trimmed = SEPARATORS.matcher(plain.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+        return trimmed.isEmpty() ? new String[0] : trimmed.split(" ");
+    }
+
+    /**
+     * Open-addressing long to int hash map with linear probing. Key 0 marks an empty cell,
+     * which is safe because (type, id) keys and album ids are >= 1 and trigrams contain padding.
+     */
+    static final class LongIntMap {
+
+        private long[] keys = new long[1024];
+        private int[] values = new int[1024];
+        private int size;
+
+        int get(long key) {
+            int mask = keys.length - 1;
+            for (int i = index(key, mask); ; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return values[i];
+                }
+                if (keys[i] == 0) {
+                    return -1;
+                }
+            }
+        }
+
+        void put(long key, int value) {
+            if ((size + 1) * 2 > keys.length) {
+                resize(keys.length * 2);
+            }
+            int mask = keys.length - 1;
+            int i = index(key, mask);
+            while (keys[i] != 0 && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            if (keys[i] == 0) {
+                size++;
+            }
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        int remove(long key) {
+            int mask = keys.length - 1;
+            int i = index(key, mask);
+            while (keys[i] != key) {
+                if (keys[i] == 0) {
+                    return -1;
+                }
+                i = (i + 1) & mask;
+            }
+            int value = values[i];
+
+            // Backward-shift deletion keeps probe chains intact without tombstones
+            int gap = i;
+            for (int j = (gap + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {
+                int home = index(keys[j], mask);
+                if (((j - home) & mask) >= ((j - gap) & mask)) {
+                    keys[gap] = keys[j];
+                    values[gap] = values[j];
+                    gap = j;
+                }
+            }
+            keys[gap] = 0;
+            size--;
+            return value;
+        }
+
+        void clear() {
+            keys = new long[1024];
+            values = new int[1024];
+            size = 0;
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new long[capacity];
+            values = new int[capacity];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int index(long key, int mask) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.pss.fullstack.service;
+
+import com.pss.fullstack.dto.SearchHitDTO.Type;
+import com.pss.fullstack.dto.SuggestRow;
+import com.pss.fullstack.dto.SuggestionDTO;
+import com.pss.fullstack.model.Album;
+import com.pss.fullstack.model.Artist;
+import com.pss.fullstack.model.Track;
+import com.pss.fullstack.repository.AlbumRepository;
+import com.pss.fullstack.repository.ArtistRepository;
+import com.pss.fullstack.repository.TrackRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Typeahead suggestions served from the in-memory {@link SuggestIndex}.
+ * The index is built once the application is ready (after the seeders) by streaming
+ * names and titles from the database, then kept current by the catalog services,
+ * which report changes here; changes are applied after their transaction commits.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SuggestService {
+
+    static final int MAX_LIMIT = 20;
+
+    private final ArtistRepository artistRepository;
+    private final AlbumRepository albumRepository;
+    private final TrackRepository trackRepository;
+
+    private final SuggestIndex index = new SuggestIndex();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void buildIndex() {
+        long start = System.currentTimeMillis();
+        load(Type.ARTIST, artistRepository.streamSuggestRows());
+        load(Type.ALBUM, albumRepository.streamSuggestRows());
+        load(Type.TRACK, trackRepository.streamSuggestRows());
+        log.info("Suggest index built with {} entries in {} ms", index.size(), System.currentTimeMillis() - start);
+    }
+
+    public List<SuggestionDTO> suggest(String query, int limit) {
+        return index.suggest(query, Math.max(1, Math.min(limit, MAX_LIMIT)));
+    }
+
+    public void artistChanged(Artist artist) {
+        long id = artist.getId();
+        String name = artist.getName();
+        boolean active = !Boolean.FALSE.equals(artist.getActive());
+        TransactionHooks.afterCommit(() -> {
+            if (active) {
+                index.put(Type.ARTIST, id, name, 0);
+            } else {
+                index.remove(Type.ARTIST, id);
+            }
+        });
+    }
+
+    /**
+     * Re-index an album and its tracks. The tracks are read after the commit,
+     * once the new ones have been flushed and have ids.
+     */
+    public void albumChanged(Album album) {
+        long id = album.getId();
+        boolean active = !Boolean.FALSE.equals(album.getActive());
+        TransactionHooks.afterCommit(() -> {
+            index.removeTracksOf(id);
+            if (active) {
+                index.put(Type.ALBUM, id, album.getTitle(), 0);
+                album.getTracks().forEach(track -> index.put(Type.TRACK, track.getId(), track.getTitle(), id));
+            } else {
+                index.remove(Type.ALBUM, id);
+            }
+        });
+    }
+
+    public void trackChanged(Track track) {
+        long id = track.getId();
+        String title = track.getTitle();
+        long albumId = track.getAlbum().getId();
+        boolean active = !Boolean.FALSE.equals(track.getAlbum().getActive());
+        TransactionHooks.afterCommit(() -> {
+            if (active) {
+                index.put(Type.TRACK, id, title, albumId);
+            }
+        });
+    }
+
+    public void trackRemoved(Long id) {
+        TransactionHooks.afterCommit(() -> index.remove(Type.TRACK, id));
+    }
+
+    private void load(Type type, Stream<SuggestRow> rows) {
+        try (rows) {
+            rows.forEach(row -> index.put(type, row.id(), row.text(), row.albumId() == null ? 0 : row.albumId()));
+        }
+    }
+
+}
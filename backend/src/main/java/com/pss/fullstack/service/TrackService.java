@@ -17,6 +17,9 @@ public class TrackService {
 
     private final TrackRepository trackRepository;
     private final AudioService audioService;
+    private final UrlGeneratorService urlGeneratorService;
+    private final SuggestService suggestService;
+    private final CatalogCacheService catalogCacheService;
 
     /**
      * Find track by ID and return DTO with stream URL
@@ -25,18 +28,7 @@ public class TrackService {
         Track track = trackRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Track not found with id: " + id));
 
-        TrackDTO dto = TrackDTO.fromEntity(track);
-
-        // Add stream URL if audio exists
-        if (track.getAudioKey() != null) {
-            try {
-                dto.setStreamUrl(audioService.getStreamUrl(id));
-            } catch (Exception e) {
-                log.warn("Could not generate stream URL for track {}: {}", id, e.getMessage());
-            }
-        }
-
-        return dto;
+        return toDTO(track);
     }
 
     /**
@@ -58,18 +50,9 @@ public class TrackService {
         }
 
         Track savedTrack = trackRepository.save(track);
-        TrackDTO resultDto = TrackDTO.fromEntity(savedTrack);
-
-        // Add stream URL if audio exists
-        if (savedTrack.getAudioKey() != null) {
-            try {
-                resultDto.setStreamUrl(audioService.getStreamUrl(id));
-            } catch (Exception e) {
-                log.warn("Could not generate stream URL for track {}: {}", id, e.getMessage());
-            }
-        }
-
-        return resultDto;
+        suggestService.trackChanged(savedTrack);
+        catalogCacheService.evictAlbum(savedTrack.getAlbum().getId());
+        return toDTO(savedTrack);
     }
 
     /**
@@ -89,6 +72,27 @@ public class TrackService {
         }
 
         trackRepository.delete(track);
+        suggestService.trackRemoved(id);
+        catalogCacheService.evictAlbum(track.getAlbum().getId());
         log.info("Track {} deleted successfully", id);
     }
-}
\ No newline at end of file
+
+    private TrackDTO toDTO(Track track) {
+        TrackDTO dto = TrackDTO.fromEntity(track);
+
+        if (track.getPreviewKey() != null) {
+            dto.setPreviewUrl(urlGeneratorService.generatePreviewUrl(track.getPreviewKey()));
+        }
+
+        // Add stream URL if audio exists
+        if (track.getAudioKey() != null) {
+            try {
+                dto.setStreamUrl(audioService.getStreamUrl(track.getId()));
+            } catch (Exception e) {
+                log.warn("Could not generate stream URL for track {}: {}", track.getId(), e.getMessage());
+            }
+        }
+
+        return dto;
+    }
+}
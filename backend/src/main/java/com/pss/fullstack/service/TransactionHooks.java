@@ -0,0 +1,50 @@
+package com.pss.fullstack.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Runs side effects of a change (index updates, cache evictions) once its transaction has
+ * committed, so concurrent readers cannot observe or repopulate the pre-commit state.
+ * Outside a transaction the action runs immediately.
+ * <p>
+ * Work committed apart from the transaction (in its own REQUIRES_NEW transaction) can be
+ * compensated with {@link #afterRollback} when the surrounding transaction rolls back.
+ */
+final class TransactionHooks {
+
+    private TransactionHooks() {
+    }
+
+    static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Run an action if the current transaction rolls back; the transaction resources are still
+     * bound at that point, so data access in the action needs a transaction of its own.
+     * Outside a transaction there is nothing to roll back and the action never runs.
+     */
+    static void afterRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    action.run();
+                }
+            }
+        });
+    }
+}
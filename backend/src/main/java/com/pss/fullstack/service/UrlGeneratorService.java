@@ -4,7 +4,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 /**
- * Service for generating environment-aware URLs for images.
+ * Service for generating environment-aware URLs for images and preview clips.
  * In development, generates absolute URLs with host and port.
  * In Docker, generates relative URLs for nginx proxy.
  */
@@ -48,4 +48,15 @@ public class UrlGeneratorService {
     public String generateArtistPhotoUrl(String objectKey) {
         return generateImageUrl("artist-photos", objectKey);
     }
-}
\ No newline at end of file
+
+    /**
+     * Generate URL for a track preview clip.
+     *
+     * @param objectKey The object key/filename of the preview clip
+     * @return The complete URL for the preview clip
+     */
+    public String generatePreviewUrl(String objectKey) {
+        String path = String.format("/api/v1/previews/%s", objectKey);
+        return baseUrl == null || baseUrl.isEmpty() ? path : baseUrl + path;
+    }
+}
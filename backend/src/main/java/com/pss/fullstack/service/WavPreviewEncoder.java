@@ -0,0 +1,160 @@
+package com.pss.fullstack.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encodes the start of a PCM WAV stream as a low-bitrate preview: 8-bit mono at
+ * 11.025 kHz (~88 kbps), averaging the source frames that fall into each output sample.
+ * Only the excerpt is read from the source.
+ */
+final class WavPreviewEncoder {
+
+    static final int PREVIEW_SAMPLE_RATE = 11025;
+
+    private static final int HEADER_SIZE = 44;
+    private static final int PCM = 1;
+
+    private WavPreviewEncoder() {
+    }
+
+    /**
+     * Encode the first {@code seconds} of a WAV stream, or return null when it is not 8/16-bit PCM
+     */
+    static byte[] encode(InputStream source, int seconds) throws IOException {
+        DataInputStream in = new DataInputStream(source);
+        byte[] word = new byte[4];
+
+        in.readFully(word);
+        if (!"RIFF".equals(ascii(word))) {
+            return null;
+        }
+        in.skipNBytes(4);
+        in.readFully(word);
+        if (!"WAVE".equals(ascii(word))) {
+            return null;
+        }
+
+        Format format = null;
+        while (true) {
+            String chunkId;
+            long chunkSize;
+            try {
+                in.readFully(word);
+                chunkId = ascii(word);
+                chunkSize = Integer.toUnsignedLong(Integer.reverseBytes(in.readInt()));
+            } catch (EOFException e) {
+                return null; // no data chunk
+            }
+
+            if ("fmt ".equals(chunkId)) {
+                byte[] fmt = in.readNBytes((int) chunkSize);
+                format = Format.parse(fmt);
+                if (format == null) {
+                    return null;
+                }
+            } else if ("data".equals(chunkId)) {
+                return format == null ? null : downsample(in, format, Math.min(chunkSize / format.blockAlign(),
+                        (long) seconds * format.sampleRate()));
+            } else {
+                in.skipNBytes(chunkSize + (chunkSize & 1)); // chunks are word aligned
+            }
+        }
+    }
+
+    private static byte[] downsample(DataInputStream in, Format format, long frames) throws IOException {
+        int outputRate = Math.min(PREVIEW_SAMPLE_RATE, format.sampleRate());
+        ByteArrayOutputStream samples = new ByteArrayOutputStream((int) (frames * outputRate / format.sampleRate()) + 1);
+        byte[] frame = new byte[format.blockAlign()];
+
+        long outputIndex = 0;
+        long sum = 0;
+        int count = 0;
+        for (long i = 0; i < frames; i++) {
+            if (in.readNBytes(frame, 0, frame.length) < frame.length) {
+                break;
+            }
+
+            long target = i * outputRate / format.sampleRate();
+            if (target != outputIndex && count > 0) {
+                samples.write(toUnsigned8Bit(sum / count));
+                outputIndex = target;
+                sum = 0;
+                count = 0;
+            }
+            sum += format.monoSample(frame);
+            count++;
+        }
+        if (count > 0) {
+            samples.write(toUnsigned8Bit(sum / count));
+        }
+
+        byte[] data = samples.toByteArray();
+        ByteBuffer wav = ByteBuffer.allocate(HEADER_SIZE + data.length).order(ByteOrder.LITTLE_ENDIAN);
+        wav.put("RIFF".getBytes(StandardCharsets.US_ASCII))
+                .putInt(HEADER_SIZE - 8 + data.length)
+                .put("WAVE".getBytes(StandardCharsets.US_ASCII))
+                .put("fmt ".getBytes(StandardCharsets.US_ASCII))
+                .putInt(16)
+                .putShort((short) PCM)
+                .putShort((short) 1)        // mono
+                .putInt(outputRate)
+                .putInt(outputRate)         // byte rate: one byte per sample
+                .putShort((short) 1)        // block align
+                .putShort((short) 8)        // bits per sample
+                .put("data".getBytes(StandardCharsets.US_ASCII))
+                .putInt(data.length)
+                .put(data);
+        return wav.array();
+    }
+
+    private static int toUnsigned8Bit(long sample16) {
+        return (int) (sample16 >> 8) + 128;
+    }
+
+    private static String ascii(byte[] bytes) {
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    private record Format(int channels, int sampleRate, int blockAlign, int bitsPerSample) {
+
+        static Format parse(byte[] fmt) {
+            if (fmt.length < 16) {
+                return null;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(fmt).order(ByteOrder.LITTLE_ENDIAN);
+            int audioFormat = buffer.getShort(0) & 0xFFFF;
+            int channels = buffer.getShort(2) & 0xFFFF;
+            int sampleRate = buffer.getInt(4);
+            int blockAlign = buffer.getShort(12) & 0xFFFF;
+            int bitsPerSample = buffer.getShort(14) & 0xFFFF;
+
+            if (audioFormat != PCM || channels == 0 || sampleRate <= 0
+                    || (bitsPerSample != 8 && bitsPerSample != 16) || blockAlign != channels * bitsPerSample / 8) {
+                return null;
+            }
+            return new Format(channels, sampleRate, blockAlign, bitsPerSample);
+        }
+
+        /**
+         * Average of the frame's channels as a signed 16-bit value
+         */
+        long monoSample(byte[] frame) {
+            long sum = 0;
+            for (int channel = 0; channel < channels; channel++) {
+                if (bitsPerSample == 8) {
+                    sum += ((frame[channel] & 0xFF) - 128) << 8;
+                } else {
+                    sum += (short) ((frame[channel * 2] & 0xFF) | (frame[channel * 2 + 1] << 8));
+                }
+            }
+            return sum / channels;
+        }
+    }
+}
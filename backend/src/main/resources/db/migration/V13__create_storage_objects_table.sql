@@ -0,0 +1,17 @@
+-- Content-addressed storage objects (MinIO) with reference counting
+-- object_key is derived from the SHA-256 of the content, so identical uploads share one object
+CREATE TABLE storage_objects (
+    id BIGSERIAL PRIMARY KEY,
+    bucket VARCHAR(100) NOT NULL,
+    object_key VARCHAR(500) NOT NULL,
+    sha256 VARCHAR(64) NOT NULL,
+    size BIGINT NOT NULL,
+    content_type VARCHAR(100),
+    ref_count INTEGER NOT NULL DEFAULT 1,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP,
+    CONSTRAINT uk_storage_objects_bucket_key UNIQUE (bucket, object_key)
+);
+
+-- Index for lookups by content hash
+CREATE INDEX idx_storage_objects_sha256 ON storage_objects(sha256);
@@ -0,0 +1,4 @@
+-- CRC-32 of the audio file, required up front to write STORED ZIP entries for album downloads
+ALTER TABLE tracks ADD COLUMN audio_crc32 BIGINT;
+
+COMMENT ON COLUMN tracks.audio_crc32 IS 'CRC-32 of the audio file (album ZIP downloads)';
@@ -0,0 +1,10 @@
+-- Time -> byte offset tables for seeking inside compressed tracks (one row per track)
+CREATE TABLE track_seek_indexes (
+    track_id BIGINT PRIMARY KEY REFERENCES tracks(id) ON DELETE CASCADE,
+    interval_ms INTEGER NOT NULL,
+    duration_ms BIGINT NOT NULL,
+    offsets BYTEA NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON COLUMN track_seek_indexes.offsets IS 'Big-endian uint32 byte offset of the frame playing at each interval_ms step';
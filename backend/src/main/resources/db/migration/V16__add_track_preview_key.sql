@@ -0,0 +1,4 @@
+-- Short low-bitrate preview clip per track, stored in the audio-previews bucket
+ALTER TABLE tracks ADD COLUMN preview_key VARCHAR(255);
+
+COMMENT ON COLUMN tracks.preview_key IS 'MinIO key of the preview clip (audio-previews bucket)';
@@ -0,0 +1,4 @@
+-- Composite indexes matching the keyset pagination order of the list endpoints:
+-- WHERE active = true AND (title, id) > (:title, :id) ORDER BY title, id
+CREATE INDEX idx_albums_active_title_id ON albums (active, title, id);
+CREATE INDEX idx_artists_active_name_id ON artists (active, name, id);
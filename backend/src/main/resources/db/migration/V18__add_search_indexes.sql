@@ -0,0 +1,23 @@
+-- Indexed substring, full-text and fuzzy search over albums, artists and tracks.
+-- Trigram GIN indexes on LOWER(...) serve the LOWER(col) LIKE LOWER('%q%') filters
+-- and the similarity operators; tsvector columns serve ranked full-text matches.
+-- The 'simple' configuration is used because titles mix English and Portuguese.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_albums_title_trgm ON albums USING gin (LOWER(title) gin_trgm_ops);
+CREATE INDEX idx_artists_name_trgm ON artists USING gin (LOWER(name) gin_trgm_ops);
+CREATE INDEX idx_tracks_title_trgm ON tracks USING gin (LOWER(title) gin_trgm_ops);
+
+ALTER TABLE albums ADD COLUMN search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(genre, '')), 'B')
+    ) STORED;
+ALTER TABLE artists ADD COLUMN search_vector tsvector
+    GENERATED ALWAYS AS (to_tsvector('simple', coalesce(name, ''))) STORED;
+ALTER TABLE tracks ADD COLUMN search_vector tsvector
+    GENERATED ALWAYS AS (to_tsvector('simple', coalesce(title, ''))) STORED;
+
+CREATE INDEX idx_albums_search_vector ON albums USING gin (search_vector);
+CREATE INDEX idx_artists_search_vector ON artists USING gin (search_vector);
+CREATE INDEX idx_tracks_search_vector ON tracks USING gin (search_vector);
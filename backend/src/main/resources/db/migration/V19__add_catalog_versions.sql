@@ -0,0 +1,4 @@
+-- Optimistic locking versions of the catalog entities, also used to build ETags
+ALTER TABLE albums ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE artists ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE tracks ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,10 @@
+-- Pooled id allocation for the catalog tables: Hibernate reserves 50 ids per sequence call
+-- (allocationSize on Album, Artist and Track), which lets inserts be JDBC-batched.
+-- Each sequence is first moved to the current max id, so the next block starts above it.
+SELECT setval('albums_id_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM albums), 1));
+SELECT setval('artists_id_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM artists), 1));
+SELECT setval('tracks_id_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM tracks), 1));
+
+ALTER SEQUENCE albums_id_seq INCREMENT BY 50;
+ALTER SEQUENCE artists_id_seq INCREMENT BY 50;
+ALTER SEQUENCE tracks_id_seq INCREMENT BY 50;
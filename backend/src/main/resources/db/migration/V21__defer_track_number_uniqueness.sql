@@ -0,0 +1,6 @@
+-- Track numbers stay unique per album, but the check runs at commit: an album update
+-- renumbers its tracks in place, and within the flush a row can briefly share its new
+-- number with one not yet updated.
+ALTER TABLE tracks DROP CONSTRAINT uk_album_track_number;
+ALTER TABLE tracks ADD CONSTRAINT uk_album_track_number
+    UNIQUE (album_id, track_number) DEFERRABLE INITIALLY DEFERRED;
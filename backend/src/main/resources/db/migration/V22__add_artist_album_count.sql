@@ -0,0 +1,10 @@
+-- Number of active albums per artist, so artist pages do not count artist_albums rows.
+-- Maintained by the application on link and activation changes, repaired periodically.
+ALTER TABLE artists ADD COLUMN album_count INTEGER NOT NULL DEFAULT 0;
+
+UPDATE artists ar SET album_count = (
+    SELECT COUNT(*)
+    FROM artist_albums aa
+    JOIN albums al ON al.id = aa.album_id
+    WHERE aa.artist_id = ar.id AND al.active = true
+);
@@ -0,0 +1,38 @@
+-- Catalog statistics for dashboards, precomputed so reads are single-row lookups.
+-- Refreshed CONCURRENTLY by CatalogStatsService (periodically and shortly after writes);
+-- a concurrent refresh needs a unique index and lets readers keep the previous contents.
+
+-- Totals of each artist over its active albums
+CREATE MATERIALIZED VIEW artist_stats AS
+SELECT ar.id AS artist_id,
+       COUNT(al.id) AS album_count,
+       COALESCE(SUM(t.track_count), 0) AS track_count,
+       COALESCE(SUM(t.total_duration), 0) AS total_duration,
+       MAX(al.release_year) AS latest_release
+FROM artists ar
+LEFT JOIN artist_albums aa ON aa.artist_id = ar.id
+LEFT JOIN albums al ON al.id = aa.album_id AND al.active = true
+LEFT JOIN (
+    SELECT album_id, COUNT(*) AS track_count, SUM(duration) AS total_duration
+    FROM tracks
+    GROUP BY album_id
+) t ON t.album_id = al.id
+GROUP BY ar.id;
+
+CREATE UNIQUE INDEX uk_artist_stats_artist ON artist_stats (artist_id);
+
+-- Whole catalog in one row, keyed by a constant for the unique index
+CREATE MATERIALIZED VIEW catalog_stats AS
+SELECT 1 AS id,
+       (SELECT COUNT(*) FROM artists WHERE active = true) AS artist_count,
+       COUNT(DISTINCT al.id) AS album_count,
+       COUNT(t.id) AS track_count,
+       COALESCE(SUM(t.duration), 0) AS total_duration,
+       MIN(al.release_year) AS earliest_release,
+       MAX(al.release_year) AS latest_release,
+       CURRENT_TIMESTAMP AS refreshed_at
+FROM albums al
+LEFT JOIN tracks t ON t.album_id = al.id
+WHERE al.active = true;
+
+CREATE UNIQUE INDEX uk_catalog_stats_id ON catalog_stats (id);
@@ -0,0 +1,143 @@
+package com.pss.fullstack.service;
+
+import com.pss.fullstack.exception.BusinessException;
+import com.pss.fullstack.model.Album;
+import com.pss.fullstack.model.Track;
+import com.pss.fullstack.repository.AlbumRepository;
+import com.pss.fullstack.service.AlbumArchiveService.AlbumArchive;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AlbumArchiveServiceTest {
+
+    @Mock
+    private AlbumRepository albumRepository;
+
+    @Mock
+    private StorageService storageService;
+
+    @InjectMocks
+    private AlbumArchiveService albumArchiveService;
+
+    private final Map<String, byte[]> objects = new HashMap<>();
+    private Album album;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(albumArchiveService, "audioBucket", "audio-tracks");
+        ReflectionTestUtils.setField(albumArchiveService, "prefetchThreads", 2);
+        albumArchiveService.startPrefetchPool();
+
+        album = Album.builder().title("Greatest: Hits").build();
+        album.setId(1L);
+        album.addTrack(track(1, "Intro", "a.mp3", "first track audio", true));
+        album.addTrack(track(2, "Outro/Reprise", "b.wav", "second track audio, a little longer", false));
+
+        when(albumRepository.findById(1L)).thenReturn(Optional.of(album));
+        lenient().when(storageService.openObjectStream(eq("audio-tracks"), anyString(), anyLong(), any()))
+                .thenAnswer(invocation -> {
+                    byte[] content = objects.get(invocation.<String>getArgument(1));
+                    int offset = (int) invocation.<Long>getArgument(2).longValue();
+                    Long length = invocation.getArgument(3);
+                    int end = length == null ? content.length : offset + length.intValue();
+                    return new ByteArrayInputStream(Arrays.copyOfRange(content, offset, end));
+                });
+    }
+
+    @AfterEach
+    void tearDown() {
+        albumArchiveService.stopPrefetchPool();
+    }
+
+    @Test
+    void shouldStreamReadableStoredZip() throws Exception {
+        AlbumArchive archive = albumArchiveService.buildArchive(1L);
+        byte[] zip = write(archive, 0, archive.length() - 1);
+
+        assertEquals(archive.length(), zip.length);
+        assertEquals("Greatest_ Hits.zip", archive.fileName());
+
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip), StandardCharsets.UTF_8)) {
+            ZipEntry first = in.getNextEntry();
+            assertEquals("Greatest_ Hits/01 - Intro.mp3", first.getName());
+            assertEquals(ZipEntry.STORED, first.getMethod());
+            assertArrayEquals(objects.get("a.mp3"), in.readAllBytes());
+
+            ZipEntry second = in.getNextEntry();
+            assertEquals("Greatest_ Hits/02 - Outro_Reprise.wav", second.getName());
+            assertArrayEquals(objects.get("b.wav"), in.readAllBytes());
+
+            assertNull(in.getNextEntry());
+        }
+    }
+
+    @Test
+    void shouldBackfillMissingChecksum() {
+        albumArchiveService.buildArchive(1L);
+
+        Track backfilled = album.getTracks().get(1);
+        CRC32 crc = new CRC32();
+        crc.update(objects.get("b.wav"));
+        assertEquals(crc.getValue(), backfilled.getAudioCrc32());
+        assertEquals(objects.get("b.wav").length, backfilled.getFileSize());
+    }
+
+    @Test
+    void shouldProduceSameBytesForAnyRange() throws Exception {
+        AlbumArchive archive = albumArchiveService.buildArchive(1L);
+        byte[] full = write(archive, 0, archive.length() - 1);
+
+        for (long first = 0; first < archive.length(); first += 7) {
+            long last = Math.min(archive.length() - 1, first + 40);
+            byte[] part = write(archive, first, last);
+            assertArrayEquals(Arrays.copyOfRange(full, (int) first, (int) last + 1), part);
+        }
+    }
+
+    @Test
+    void shouldRejectAlbumWithoutAudio() {
+        album.getTracks().forEach(track -> track.setAudioKey(null));
+
+        assertThrows(BusinessException.class, () -> albumArchiveService.buildArchive(1L));
+    }
+
+    private byte[] write(AlbumArchive archive, long first, long last) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        albumArchiveService.writeRange(archive, first, last, out);
+        return out.toByteArray();
+    }
+
+    private Track track(int number, String title, String key, String audio, boolean withChecksum) {
+        byte[] content = audio.getBytes(StandardCharsets.UTF_8);
+        objects.put(key, content);
+
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        return Track.builder()
+                .title(title)
+                .trackNumber(number)
+                .audioKey(key)
+                .fileSize(withChecksum ? (long) content.length : null)
+                .audioCrc32(withChecksum ? crc.getValue() : null)
+                .build();
+    }
+}
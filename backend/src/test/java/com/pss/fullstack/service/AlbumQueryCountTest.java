@@ -0,0 +1,478 @@
+package com.pss.fullstack.service;
+
+import com.pss.fullstack.dto.AlbumDTO;
+import com.pss.fullstack.dto.AlbumListItemDTO;
+import com.pss.fullstack.dto.AlbumUpdateDTO;
+import com.pss.fullstack.dto.FacetCountDTO;
+import com.pss.fullstack.dto.FacetsDTO;
+import com.pss.fullstack.dto.FieldSelection;
+import com.pss.fullstack.dto.ImportResultDTO;
+import com.pss.fullstack.dto.PageResponse;
+import com.pss.fullstack.dto.TrackInputDTO;
+import com.pss.fullstack.exception.BusinessException;
+import com.pss.fullstack.model.Album;
+import com.pss.fullstack.model.Artist;
+import com.pss.fullstack.model.ArtistType;
+import com.pss.fullstack.model.Track;
+import com.pss.fullstack.repository.ArtistRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Regression guard for the number of SQL statements issued by the album list paths.
+ * Runs the real service and repositories against H2 and counts prepared statements.
+ * The budgets must not depend on the page size (no N+1 over the albums of a page),
+ * and list pages must not hydrate entities at all.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@Import({AlbumService.class, AlbumExportService.class, AlbumImportService.class, AlbumCountReconciler.class,
+        UrlGeneratorService.class, CatalogTotalsService.class})
+@ImportAutoConfiguration({ValidationAutoConfiguration.class, JacksonAutoConfiguration.class})
+class AlbumQueryCountTest {
+
+    // page projection + count + artists of the page
+    private static final int LIST_BUDGET = 3;
+    // artist existence check + LIST_BUDGET
+    private static final int BY_ARTIST_BUDGET = 4;
+    // keyset page + artists of the page, no count
+    private static final int CURSOR_BUDGET = 2;
+    // slice (size + 1 rows) + artists of the page, no count
+    private static final int SLICE_BUDGET = 2;
+
+    @MockBean
+    private NotificationService notificationService;
+
+    @MockBean
+    private AudioService audioService;
+
+    @MockBean
+    private StorageService storageService;
+
+    @MockBean
+    private SuggestService suggestService;
+
+    @MockBean
+    private CatalogCacheService catalogCacheService;
+
+    @Autowired
+    private AlbumService albumService;
+
+    @Autowired
+    private AlbumExportService albumExportService;
+
+    @Autowired
+    private AlbumImportService albumImportService;
+
+    @Autowired
+    private AlbumCountReconciler albumCountReconciler;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Artist artist;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        artist = persistArtist("Artist A");
+        Artist other = persistArtist("Artist B");
+
+        for (int i = 0; i < 12; i++) {
+            Album album = Album.builder()
+                    .title(String.format("Album %02d", i))
+                    .releaseYear(2000 + i)
+                    .build();
+            album.addArtist(artist);
+            album.addArtist(other);
+            album.addCoverKey("cover-" + i + ".jpg");
+            for (int number = 1; number <= 3; number++) {
+                album.addTrack(Track.builder().title("Track " + number).trackNumber(number).duration(180).build());
+            }
+            album.updateTrackMetadata();
+            entityManager.persist(album);
+        }
+
+        entityManager.flush();
+        // Links made through the entities leave the album counts to the services
+        entityManager.createQuery("UPDATE Artist ar SET ar.albumCount = " + ArtistRepository.ACTIVE_ALBUM_COUNT)
+                .executeUpdate();
+        entityManager.clear();
+    }
+
+    @Test
+    void findAllShouldUseConstantStatementCount() {
+        assertStatementBudget(LIST_BUDGET, () -> albumService.findAll(0, 2, "title", "asc", true, FieldSelection.ALL));
+        assertStatementBudget(LIST_BUDGET, () -> albumService.findAll(0, 10, "title", "asc", true, FieldSelection.ALL));
+    }
+
+    @Test
+    void findByFiltersShouldUseConstantStatementCount() {
+        assertStatementBudget(LIST_BUDGET, () -> albumService.findByFilters("album", null, 0, 2, "title", "asc", true, FieldSelection.ALL));
+        assertStatementBudget(LIST_BUDGET, () -> albumService.findByFilters("album", null, 0, 10, "title", "asc", true, FieldSelection.ALL));
+    }
+
+    @Test
+    void findByArtistIdShouldUseConstantStatementCount() {
+        assertStatementBudget(BY_ARTIST_BUDGET, () -> albumService.findByArtistId(artist.getId(), 0, 2, true, FieldSelection.ALL));
+        assertStatementBudget(BY_ARTIST_BUDGET, () -> albumService.findByArtistId(artist.getId(), 0, 10, true, FieldSelection.ALL));
+    }
+
+    @Test
+    void slicesShouldSkipCountQuery() {
+        PageResponse<AlbumListItemDTO> first = assertStatementBudget(SLICE_BUDGET,
+                () -> albumService.findAll(0, 10, "title", "asc", false, FieldSelection.ALL));
+        assertNull(first.getTotalElements());
+        assertFalse(first.isLast());
+
+        PageResponse<AlbumListItemDTO> second = assertStatementBudget(SLICE_BUDGET,
+                () -> albumService.findByFilters("album", null, 1, 10, "title", "asc", false, FieldSelection.ALL));
+        assertEquals(2, second.getContent().size());
+        assertTrue(second.isLast());
+
+        assertStatementBudget(SLICE_BUDGET + 1, () -> albumService.findByArtistId(artist.getId(), 0, 5, false, FieldSelection.ALL));
+    }
+
+    @Test
+    void knownTotalShouldSkipCountQuery() {
+        ListTag tag = albumService.findListEtag("album", null, 1, 10, "title", "asc", true);
+        assertEquals(12, tag.total());
+
+        PageResponse<AlbumListItemDTO> page = assertStatementBudget(SLICE_BUDGET,
+                () -> albumService.findByFilters("album", null, 1, 10, "title", "asc", true, tag.total(), FieldSelection.ALL));
+        assertEquals(12, page.getTotalElements());
+        assertEquals(2, page.getTotalPages());
+        assertTrue(page.isLast());
+    }
+
+    @Test
+    void findByCursorShouldWalkAllAlbumsWithoutCount() {
+        List<String> titles = new ArrayList<>();
+        String cursor = "";
+        for (int pages = 1; ; pages++) {
+            String after = cursor;
+            PageResponse<AlbumListItemDTO> page = assertStatementBudget(CURSOR_BUDGET,
+                    () -> albumService.findByCursor(null, null, null, after, 5, "title", "desc", FieldSelection.ALL));
+            assertNull(page.getTotalElements());
+            page.getContent().forEach(album -> titles.add(album.getTitle()));
+
+            cursor = page.getNextCursor();
+            if (cursor == null) {
+                assertEquals(3, pages);
+                assertTrue(page.isLast());
+                break;
+            }
+        }
+
+        List<String> expected = new ArrayList<>();
+        for (int i = 11; i >= 0; i--) {
+            expected.add(String.format("Album %02d", i));
+        }
+        assertEquals(expected, titles);
+    }
+
+    @Test
+    void findByCursorShouldRejectCursorOfAnotherOrder() {
+        String cursor = albumService.findByCursor(null, null, artist.getId(), "", 5, "title", "asc", FieldSelection.ALL).getNextCursor();
+
+        assertThrows(BusinessException.class,
+                () -> albumService.findByCursor(null, null, artist.getId(), cursor, 5, "title", "desc", FieldSelection.ALL));
+    }
+
+    @Test
+    void fieldSelectionShouldSkipAssociationsLeftOut() {
+        entityManager.clear();
+        statistics.clear();
+        PageResponse<AlbumListItemDTO> page = albumService.findAll(0, 10, "title", "asc", true,
+                new FieldSelection(Set.of("id", "title", "coverUrl"), null));
+
+        assertEquals(2, statistics.getPrepareStatementCount(), "page projection + count, no artist rows");
+        page.getContent().forEach(album -> {
+            assertNull(album.getArtists());
+            assertNotNull(album.getCoverUrl());
+        });
+
+        Long albumId = page.getContent().get(0).getId();
+        entityManager.clear();
+        statistics.clear();
+        AlbumDTO album = albumService.findById(albumId, new FieldSelection(null, Set.of("covers")));
+
+        assertEquals(1, statistics.getCollectionLoadCount(), "only the cover keys are loaded");
+        assertNull(album.getTracks());
+        assertNull(album.getArtists());
+        assertEquals(1, album.getCoverUrls().size());
+        assertEquals(3, album.getTrackCount());
+
+        assertThrows(BusinessException.class,
+                () -> albumService.findById(albumId, new FieldSelection(null, Set.of("reviews"))));
+    }
+
+    @Test
+    void etagsShouldFollowVersionsWithoutLoadingEntities() {
+        Album album = entityManager.createQuery("SELECT a FROM Album a ORDER BY a.title", Album.class)
+                .setMaxResults(1).getSingleResult();
+        Long albumId = album.getId();
+        entityManager.clear();
+        statistics.clear();
+
+        String detail = albumService.findEtag(albumId);
+        String list = albumService.findListEtag(null, null, 0, 10, "title", "asc", true).etag();
+
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(3, statistics.getPrepareStatementCount(), "detail version + page versions + count");
+        assertEquals(detail, albumService.findEtag(albumId));
+        assertEquals(list, albumService.findListEtag(null, null, 0, 10, "title", "asc", true).etag());
+
+        // A track edit shows in the album detail only
+        Track track = entityManager.find(Album.class, albumId).getTracks().get(0);
+        track.setTitle("Renamed track");
+        entityManager.flush();
+        entityManager.clear();
+        assertNotEquals(detail, albumService.findEtag(albumId));
+        assertEquals(list, albumService.findListEtag(null, null, 0, 10, "title", "asc", true).etag());
+
+        // An artist rename shows in both, since list items embed their artists
+        String renamedDetail = albumService.findEtag(albumId);
+        entityManager.find(Artist.class, artist.getId()).setName("Renamed artist");
+        entityManager.flush();
+        entityManager.clear();
+        assertNotEquals(renamedDetail, albumService.findEtag(albumId));
+        assertNotEquals(list, albumService.findListEtag(null, null, 0, 10, "title", "asc", true).etag());
+    }
+
+    @Test
+    void exportShouldBatchAssociationsPerChunk() throws Exception {
+        entityManager.clear();
+        statistics.clear();
+
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        assertEquals(12, albumExportService.export(CatalogFormat.NDJSON, ndjson));
+
+        String[] lines = ndjson.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(12, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":"));
+        assertTrue(lines[0].contains("\"name\":\"Artist A\""));
+        // album cursor + one batch load per association (artists, tracks, covers) for the chunk
+        assertEquals(4, statistics.getPrepareStatementCount());
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        albumExportService.export(CatalogFormat.CSV, csv);
+        String[] rows = csv.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(13, rows.length);
+        assertTrue(rows[0].startsWith("id,title,releaseYear"));
+        assertTrue(rows[1].contains("Track 1|180;Track 2|180;Track 3|180"));
+    }
+
+    @Test
+    void exportShouldImportAgain() throws Exception {
+        entityManager.clear();
+        Map<CatalogFormat, byte[]> exports = new EnumMap<>(CatalogFormat.class);
+        for (CatalogFormat format : CatalogFormat.values()) {
+            ByteArrayOutputStream export = new ByteArrayOutputStream();
+            albumExportService.export(format, export);
+            exports.put(format, export.toByteArray());
+        }
+
+        exports.forEach((format, export) -> {
+            ImportResultDTO result = assertDoesNotThrow(
+                    () -> albumImportService.importAlbums(format, new ByteArrayInputStream(export)));
+            assertEquals(12, result.getImported(), format + " errors: " + result.getErrors());
+        });
+        Album copy = entityManager.createQuery("SELECT a FROM Album a WHERE a.title = 'Album 03' ORDER BY a.id DESC",
+                Album.class).setMaxResults(1).getSingleResult();
+        assertEquals(2, copy.getArtists().size());
+        assertEquals(3, copy.getTrackCount());
+        assertEquals(540, copy.getTotalDuration());
+    }
+
+    @Test
+    void importShouldBatchInsertsAndReportRejectedRows() throws Exception {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            ndjson.append(String.format("{\"title\":\"Imported %02d\",\"artistIds\":[%d],\"tracks\":["
+                    + "{\"title\":\"One\",\"trackNumber\":1,\"duration\":100},"
+                    + "{\"title\":\"Two\",\"trackNumber\":2,\"duration\":120}]}%n", i, artist.getId()));
+        }
+        ndjson.append("{\"title\":\"Unknown artist\",\"artistIds\":[999999]}\n");
+        ndjson.append("{\"title\":\"\",\"artistIds\":[").append(artist.getId()).append("]}\n");
+        ndjson.append("{not json\n");
+        entityManager.clear();
+        statistics.clear();
+
+        ImportResultDTO result = albumImportService.importAlbums(
+                CatalogFormat.NDJSON, new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(23, result.getRows());
+        assertEquals(20, result.getImported());
+        assertEquals(3, result.getFailed());
+        assertEquals(List.of(21L, 22L, 23L), result.getErrors().stream().map(e -> e.getLine()).toList());
+        assertEquals("Artist not found with id: 999999", result.getErrors().get(0).getMessage());
+        // one artist lookup, sequence calls and one batch per table instead of a statement per row
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= 8, "Expected batched inserts, but " + statements + " statements were executed");
+        assertEquals(32L, entityManager.createQuery("SELECT COUNT(a) FROM Album a", Long.class).getSingleResult());
+        assertEquals(76L, entityManager.createQuery("SELECT COUNT(t) FROM Track t", Long.class).getSingleResult());
+
+        String csv = "title,releaseYear,genre,artistIds,tracks\n"
+                + "From CSV,2020,Rock," + artist.getId() + ",\"Intro|60;Outro|90\"\n"
+                + "Bad year,20x0,Rock," + artist.getId() + ",\n";
+        ImportResultDTO csvResult = albumImportService.importAlbums(
+                CatalogFormat.CSV, new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(1, csvResult.getImported());
+        assertEquals(3L, csvResult.getErrors().get(0).getLine());
+        Album imported = entityManager.createQuery("SELECT a FROM Album a WHERE a.title = 'From CSV'", Album.class)
+                .getSingleResult();
+        assertEquals(2, imported.getTrackCount());
+        assertEquals(150, imported.getTotalDuration());
+    }
+
+    @Test
+    void updateShouldReconcileTracksInPlace() {
+        Album album = entityManager.createQuery("SELECT a FROM Album a ORDER BY a.title", Album.class)
+                .setMaxResults(1).getSingleResult();
+        List<Track> tracks = List.copyOf(album.getTracks());
+        entityManager.clear();
+
+        // Rename track 1 only: one UPDATE, nothing deleted or re-inserted
+        AlbumUpdateDTO rename = AlbumUpdateDTO.builder().tracks(List.of(
+                trackInput(tracks.get(0).getId(), "Renamed", 1),
+                trackInput(tracks.get(1).getId(), "Track 2", 2),
+                trackInput(tracks.get(2).getId(), "Track 3", 3))).build();
+        statistics.clear();
+        albumService.update(album.getId(), rename);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(1, statistics.getEntityUpdateCount());
+        assertEquals(0, statistics.getEntityInsertCount());
+        assertEquals(0, statistics.getEntityDeleteCount());
+
+        // Swap 1 and 2, drop 3, add a new one
+        AlbumUpdateDTO renumber = AlbumUpdateDTO.builder().tracks(List.of(
+                trackInput(tracks.get(1).getId(), "Track 2", 1),
+                trackInput(tracks.get(0).getId(), "Renamed", 2),
+                trackInput(null, "Bonus", 3))).build();
+        statistics.clear();
+        AlbumDTO updated = albumService.update(album.getId(), renumber);
+        entityManager.flush();
+
+        assertEquals(List.of("Track 2", "Renamed", "Bonus"), updated.getTracks().stream().map(t -> t.getTitle()).toList());
+        assertEquals(1, statistics.getEntityInsertCount());
+        assertEquals(1, statistics.getEntityDeleteCount());
+        assertEquals(tracks.get(0).getId(), updated.getTracks().get(1).getId());
+
+        assertThrows(BusinessException.class, () -> albumService.update(album.getId(), AlbumUpdateDTO.builder()
+                .tracks(List.of(trackInput(null, "A", 1), trackInput(null, "B", 1))).build()));
+    }
+
+    @Test
+    void albumCountsShouldFollowLinksAndBeRepaired() {
+        Artist before = entityManager.find(Artist.class, artist.getId());
+        assertEquals(12, before.getAlbumCount());
+        Long version = before.getVersion();
+
+        Album album = entityManager.createQuery("SELECT a FROM Album a ORDER BY a.title", Album.class)
+                .setMaxResults(1).getSingleResult();
+        albumService.deactivate(album.getId());
+        entityManager.flush();
+        entityManager.clear();
+        Artist after = entityManager.find(Artist.class, artist.getId());
+        assertEquals(11, after.getAlbumCount());
+        // Counted in place: album writes never conflict with edits of the artist
+        assertEquals(version, after.getVersion());
+        assertEquals(0, albumCountReconciler.reconcile());
+
+        // Drift from a write that bypassed the entities
+        entityManager.createQuery("UPDATE Artist ar SET ar.albumCount = 40").executeUpdate();
+        entityManager.clear();
+        assertEquals(2, albumCountReconciler.reconcile());
+        entityManager.clear();
+        assertEquals(11, entityManager.find(Artist.class, artist.getId()).getAlbumCount());
+    }
+
+    @Test
+    void facetsShouldComeFromGroupedQueries() {
+        entityManager.createQuery("UPDATE Album a SET a.genre = 'Rock' WHERE a.releaseYear < 2004").executeUpdate();
+        statistics.clear();
+
+        FacetsDTO facets = albumService.findFacets("album 0", null);
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(10, facets.getTotal());
+        assertEquals(List.of(new FacetCountDTO(null, 6), new FacetCountDTO("Rock", 4)), facets.getFacets().get("genre"));
+        assertEquals(10, facets.getFacets().get("releaseYear").size());
+        assertEquals("2009", facets.getFacets().get("releaseYear").get(0).getValue());
+        assertEquals(List.of(new FacetCountDTO("2000", 10)), facets.getFacets().get("decade"));
+
+        assertEquals(List.of(new FacetCountDTO("2010", 2), new FacetCountDTO("2000", 10)),
+                albumService.findFacets(null, null).getFacets().get("decade"));
+    }
+
+    private static TrackInputDTO trackInput(Long id, String title, int trackNumber) {
+        return TrackInputDTO.builder().id(id).title(title).trackNumber(trackNumber).duration(180).build();
+    }
+
+    private PageResponse<AlbumListItemDTO> assertStatementBudget(int budget, Supplier<PageResponse<AlbumListItemDTO>> query) {
+        entityManager.clear();
+        statistics.clear();
+
+        PageResponse<AlbumListItemDTO> page = query.get();
+
+        // The items really carry artists, totals and cover, so they must have been loaded
+        assertFalse(page.getContent().isEmpty());
+        page.getContent().forEach(album -> {
+            assertEquals(2, album.getArtists().size());
+            assertEquals(3, album.getTrackCount());
+            assertNotNull(album.getCoverUrl());
+        });
+        assertEquals(0, statistics.getEntityLoadCount(), "List pages should not hydrate entities");
+
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= budget,
+                "Expected at most " + budget + " SQL statements for a page of "
+                        + page.getContent().size() + " albums, but " + statements + " were executed");
+        return page;
+    }
+
+    private Artist persistArtist(String name) {
+        Artist artist = Artist.builder().name(name).type(ArtistType.BAND).build();
+        entityManager.persist(artist);
+        return artist;
+    }
+}
@@ -1,7 +1,10 @@
 package com.pss.fullstack.service;
 
+import com.pss.fullstack.dto.AlbumArtistRow;
 import com.pss.fullstack.dto.AlbumCreateDTO;
 import com.pss.fullstack.dto.AlbumDTO;
+import com.pss.fullstack.dto.AlbumListItemDTO;
+import com.pss.fullstack.dto.FieldSelection;
 import com.pss.fullstack.dto.PageResponse;
 import com.pss.fullstack.exception.ResourceNotFoundException;
 import com.pss.fullstack.model.Album;
@@ -49,6 +52,12 @@ class AlbumServiceTest {
     @Mock
     private UrlGeneratorService urlGeneratorService;
 
+    @Mock
+    private SuggestService suggestService;
+
+    @Mock
+    private CatalogCacheService catalogCacheService;
+
     @InjectMocks
     private AlbumService albumService;
 
@@ -74,15 +83,22 @@ class AlbumServiceTest {
 
     @Test
     void shouldFindAllAlbums() {
-        Page<Album> albumPage = new PageImpl<>(List.of(testAlbum));
-        when(albumRepository.findByActiveTrue(any(Pageable.class))).thenReturn(albumPage);
-        lenient().when(urlGeneratorService.generateAlbumCoverUrl(anyString())).thenReturn("http://test/cover.jpg");
+        AlbumListItemDTO item = new AlbumListItemDTO(1L, "Test Album", 2024, "Rock", 10, 2400, "cover.jpg");
+        Page<AlbumListItemDTO> albumPage = new PageImpl<>(List.of(item));
+        when(albumRepository.findListItems(any(Pageable.class))).thenReturn(albumPage);
+        when(albumRepository.findArtistRowsByAlbumIds(List.of(1L)))
+                .thenReturn(List.of(new AlbumArtistRow(1L, 1L, "Test Artist", ArtistType.SOLO)));
+        when(urlGeneratorService.generateAlbumCoverUrl("cover.jpg")).thenReturn("http://test/cover.jpg");
 
-        PageResponse<AlbumDTO> result = albumService.findAll(0, 10, "title", "asc");
+        PageResponse<AlbumListItemDTO> result = albumService.findAll(0, 10, "title", "asc", true, FieldSelection.ALL);
 
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
-        assertEquals("Test Album", result.getContent().get(0).getTitle());
+        AlbumListItemDTO album = result.getContent().get(0);
+        assertEquals("Test Album", album.getTitle());
+        assertEquals(10, album.getTrackCount());
+        assertEquals("http://test/cover.jpg", album.getCoverUrl());
+        assertEquals("Test Artist", album.getArtists().get(0).getName());
     }
 
     @Test
@@ -119,7 +135,7 @@ class AlbumServiceTest {
                 .build();
         savedAlbum.setId(2L);
 
-        when(artistRepository.findById(1L)).thenReturn(Optional.of(testArtist));
+        when(artistRepository.findAllById(Set.of(1L))).thenReturn(List.of(testArtist));
         when(albumRepository.save(any(Album.class))).thenReturn(savedAlbum);
         lenient().when(urlGeneratorService.generateAlbumCoverUrl(anyString())).thenReturn("http://test/cover.jpg");
 
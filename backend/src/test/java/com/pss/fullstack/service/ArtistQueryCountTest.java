@@ -0,0 +1,239 @@
+package com.pss.fullstack.service;
+
+import com.pss.fullstack.dto.AlbumSummaryDTO;
+import com.pss.fullstack.dto.ArtistCreateDTO;
+import com.pss.fullstack.dto.ArtistDTO;
+import com.pss.fullstack.dto.ArtistSimpleDTO;
+import com.pss.fullstack.dto.ArtistUpdateDTO;
+import com.pss.fullstack.dto.FacetCountDTO;
+import com.pss.fullstack.dto.FacetsDTO;
+import com.pss.fullstack.dto.FieldSelection;
+import com.pss.fullstack.dto.PageResponse;
+import com.pss.fullstack.exception.ResourceNotFoundException;
+import com.pss.fullstack.model.Album;
+import com.pss.fullstack.model.Artist;
+import com.pss.fullstack.model.ArtistType;
+import com.pss.fullstack.repository.ArtistRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Regression guard for the number of SQL statements issued by the artist list paths,
+ * against H2 like {@link AlbumQueryCountTest}. List pages must not load album collections.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "artist-list.album-previews=3"
+})
+@Import({ArtistService.class, AlbumService.class, UrlGeneratorService.class, CatalogTotalsService.class})
+class ArtistQueryCountTest {
+
+    // artists page + count + album previews of the page
+    private static final int LIST_BUDGET = 3;
+
+    // artist + id check + current links + delete + insert + album versions + active count
+    // + artist update + the response's albums and their covers
+    private static final int RELINK_BUDGET = 10;
+
+    @MockBean
+    private StorageService storageService;
+
+    @MockBean
+    private SuggestService suggestService;
+
+    @MockBean
+    private CatalogCacheService catalogCacheService;
+
+    @MockBean
+    private NotificationService notificationService;
+
+    @MockBean
+    private AudioService audioService;
+
+    @Autowired
+    private ArtistService artistService;
+
+    @Autowired
+    private AlbumService albumService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        for (int i = 0; i < 8; i++) {
+            Artist artist = Artist.builder().name(String.format("Artist %02d", i)).type(ArtistType.BAND).build();
+            entityManager.persist(artist);
+            for (int year = 2000; year < 2000 + i; year++) {
+                Album album = Album.builder().title("Album " + i + "-" + year).releaseYear(year).build();
+                album.addArtist(artist);
+                album.addCoverKey("cover-" + i + "-" + year + ".jpg");
+                entityManager.persist(album);
+            }
+        }
+
+        entityManager.flush();
+        // Links made through the entities leave the album counts to the services
+        entityManager.createQuery("UPDATE Artist ar SET ar.albumCount = " + ArtistRepository.ACTIVE_ALBUM_COUNT)
+                .executeUpdate();
+        entityManager.clear();
+    }
+
+    @Test
+    void listPagesShouldPreviewAlbumsWithoutLoadingThem() {
+        statistics.clear();
+
+        PageResponse<ArtistDTO> page = artistService.findAll(0, 8, "name", "asc", true, FieldSelection.ALL);
+
+        assertEquals(8, page.getContent().size());
+        assertEquals(0, statistics.getCollectionLoadCount(), "List pages should not load album collections");
+        assertTrue(statistics.getPrepareStatementCount() <= LIST_BUDGET,
+                "Expected at most " + LIST_BUDGET + " statements, but " + statistics.getPrepareStatementCount() + " were executed");
+
+        // Artist 05 has albums 2000..2004: the 3 newest, each with its cover
+        ArtistDTO artist = page.getContent().get(5);
+        assertEquals(5, artist.getAlbumCount());
+        assertEquals(List.of(2004, 2003, 2002), artist.getAlbums().stream().map(AlbumSummaryDTO::getReleaseYear).toList());
+        assertTrue(artist.getAlbums().get(0).getCoverUrl().endsWith("cover-5-2004.jpg"));
+        assertTrue(page.getContent().get(0).getAlbums().isEmpty());
+    }
+
+    @Test
+    void searchShouldBeBoundedAndSkipInactiveArtists() {
+        entityManager.createQuery("UPDATE Artist ar SET ar.active = false WHERE ar.name = 'Artist 01'").executeUpdate();
+        statistics.clear();
+
+        List<ArtistSimpleDTO> hits = artistService.searchByName("ARTIST 0", "asc", 3);
+
+        assertEquals(List.of("Artist 00", "Artist 02", "Artist 03"), hits.stream().map(ArtistSimpleDTO::getName).toList());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void facetsShouldComeFromGroupedQueries() {
+        entityManager.createQuery("UPDATE Artist ar SET ar.type = 'SOLO', ar.country = 'NO' WHERE ar.name < 'Artist 03'")
+                .executeUpdate();
+        statistics.clear();
+
+        FacetsDTO facets = artistService.findFacets("artist", null);
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(8, facets.getTotal());
+        assertEquals(List.of(new FacetCountDTO("BAND", 5), new FacetCountDTO("SOLO", 3)), facets.getFacets().get("type"));
+        assertEquals(List.of(new FacetCountDTO(null, 5), new FacetCountDTO("NO", 3)), facets.getFacets().get("country"));
+        assertEquals(3, artistService.findFacets(null, ArtistType.SOLO).getTotal());
+    }
+
+    @Test
+    void detailShouldListTheWholeDiscography() {
+        Long artistId = entityManager.createQuery("SELECT ar.id FROM Artist ar WHERE ar.name = 'Artist 07'", Long.class)
+                .getSingleResult();
+
+        assertEquals(7, artistService.findById(artistId).getAlbums().size());
+    }
+
+    @Test
+    void updateShouldRelinkAlbumsWithSetStatements() {
+        Long artistId = artistId("Artist 07");
+        List<Long> albumIds = new ArrayList<>(albumIds("Artist 07").subList(0, 4));
+        albumIds.addAll(albumIds("Artist 06").subList(0, 2));
+        statistics.clear();
+
+        ArtistDTO result = artistService.update(artistId, ArtistUpdateDTO.builder().albumIds(albumIds).build());
+        entityManager.flush();
+
+        assertTrue(statistics.getPrepareStatementCount() <= RELINK_BUDGET,
+                "Expected at most " + RELINK_BUDGET + " statements, but " + statistics.getPrepareStatementCount() + " were executed");
+        assertEquals(6, result.getAlbums().size());
+        assertEquals(6, result.getAlbumCount());
+
+        entityManager.clear();
+        assertEquals(albumIds.stream().sorted().toList(), albumIds("Artist 07"));
+        assertEquals(6, albumIds("Artist 06").size());
+        assertEquals(6, entityManager.find(Artist.class, artistId).getAlbumCount());
+    }
+
+    @Test
+    void createShouldLinkAlbumsInBulk() {
+        List<Long> albumIds = albumIds("Artist 02");
+
+        ArtistDTO result = artistService.create(ArtistCreateDTO.builder()
+                .name("Guest").type(ArtistType.SOLO).albumIds(albumIds).build());
+
+        assertEquals(2, result.getAlbums().size());
+        assertEquals(2, result.getAlbumCount());
+        entityManager.flush();
+        entityManager.clear();
+        assertEquals(albumIds, albumIds("Guest"));
+    }
+
+    @Test
+    void bulkLinksShouldChangeAlbumEtags() {
+        Long albumId = albumIds("Artist 02").get(0);
+        String before = albumService.findEtag(albumId);
+
+        ArtistDTO guest = artistService.create(ArtistCreateDTO.builder()
+                .name("Guest").type(ArtistType.SOLO).albumIds(List.of(albumId)).build());
+        entityManager.flush();
+        entityManager.clear();
+        String linked = albumService.findEtag(albumId);
+        assertNotEquals(before, linked);
+
+        artistService.update(guest.getId(), ArtistUpdateDTO.builder().albumIds(List.of()).build());
+        entityManager.flush();
+        entityManager.clear();
+        String unlinked = albumService.findEtag(albumId);
+        assertNotEquals(linked, unlinked);
+        assertNotEquals(before, unlinked);
+    }
+
+    @Test
+    void updateShouldRejectUnknownAlbumsBeforeChangingLinks() {
+        Long artistId = artistId("Artist 03");
+        List<Long> albumIds = List.of(albumIds("Artist 03").get(0), -1L);
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> artistService.update(artistId, ArtistUpdateDTO.builder().albumIds(albumIds).build()));
+        assertEquals(3, albumIds("Artist 03").size());
+    }
+
+    private Long artistId(String name) {
+        return entityManager.createQuery("SELECT ar.id FROM Artist ar WHERE ar.name = :name", Long.class)
+                .setParameter("name", name)
+                .getSingleResult();
+    }
+
+    private List<Long> albumIds(String artistName) {
+        return entityManager.createQuery("SELECT al.id FROM Artist ar JOIN ar.albums al " +
+                        "WHERE ar.name = :name ORDER BY al.id", Long.class)
+                .setParameter("name", artistName)
+                .getResultList();
+    }
+
+}
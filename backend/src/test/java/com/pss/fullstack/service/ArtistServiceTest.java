@@ -1,7 +1,9 @@
 package com.pss.fullstack.service;
 
 import com.pss.fullstack.dto.ArtistCreateDTO;
+import com.pss.fullstack.dto.FieldSelection;
 import com.pss.fullstack.dto.ArtistDTO;
+import com.pss.fullstack.dto.ArtistSimpleDTO;
 import com.pss.fullstack.dto.ArtistUpdateDTO;
 import com.pss.fullstack.dto.PageResponse;
 import com.pss.fullstack.exception.ResourceNotFoundException;
@@ -17,13 +19,16 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,6 +46,12 @@ class ArtistServiceTest {
     @Mock
     private UrlGeneratorService urlGeneratorService;
 
+    @Mock
+    private SuggestService suggestService;
+
+    @Mock
+    private CatalogCacheService catalogCacheService;
+
     @InjectMocks
     private ArtistService artistService;
 
@@ -61,7 +72,7 @@ class ArtistServiceTest {
         Page<Artist> artistPage = new PageImpl<>(List.of(testArtist));
         when(artistRepository.findByActiveTrue(any(Pageable.class))).thenReturn(artistPage);
 
-        PageResponse<ArtistDTO> result = artistService.findAll(0, 10, "name", "asc");
+        PageResponse<ArtistDTO> result = artistService.findAll(0, 10, "name", "asc", true, FieldSelection.ALL);
 
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
@@ -129,25 +140,26 @@ class ArtistServiceTest {
 
     @Test
     void shouldSearchByNameAscending() {
-        when(artistRepository.findByNameContainingIgnoreCaseOrderByNameAsc("test"))
-                .thenReturn(List.of(testArtist));
+        ArtistSimpleDTO hit = new ArtistSimpleDTO(1L, "Test Artist", ArtistType.SOLO);
+        when(artistRepository.searchActiveByName(eq("test"), any(Pageable.class))).thenReturn(List.of(hit));
 
-        List<ArtistDTO> result = artistService.searchByName("test", "asc");
+        List<ArtistSimpleDTO> result = artistService.searchByName(" test ", "asc", 20);
 
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals("Test Artist", result.get(0).getName());
+        verify(artistRepository).searchActiveByName("test", PageRequest.of(0, 20, Sort.by("name", "id").ascending()));
     }
 
     @Test
-    void shouldSearchByNameDescending() {
-        when(artistRepository.findByNameContainingIgnoreCaseOrderByNameDesc("test"))
-                .thenReturn(List.of(testArtist));
+    void shouldSearchByNameDescendingWithinLimit() {
+        when(artistRepository.searchActiveByName(eq("test"), any(Pageable.class))).thenReturn(List.of());
 
-        List<ArtistDTO> result = artistService.searchByName("test", "desc");
+        List<ArtistSimpleDTO> result = artistService.searchByName("test", "desc", 1000);
 
         assertNotNull(result);
-        assertEquals(1, result.size());
+        verify(artistRepository).searchActiveByName("test",
+                PageRequest.of(0, ArtistService.MAX_SEARCH_LIMIT, Sort.by("name", "id").descending()));
     }
 
 }
@@ -0,0 +1,103 @@
+package com.pss.fullstack.service;
+
+import com.pss.fullstack.model.Album;
+import com.pss.fullstack.model.Artist;
+import com.pss.fullstack.model.ArtistType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class CatalogCacheServiceTest {
+
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(
+            CatalogCacheService.ALBUM_DETAILS, CatalogCacheService.ARTIST_DETAILS, ResponseCacheService.LIST_RESPONSES);
+    private final ResponseCacheService responseCacheService = new ResponseCacheService(cacheManager);
+    private final CatalogStatsService catalogStatsService = mock(CatalogStatsService.class);
+    private final CatalogCacheService catalogCacheService = new CatalogCacheService(cacheManager, responseCacheService, catalogStatsService);
+
+    private Cache albums;
+    private Cache artists;
+    private Album album;
+
+    @BeforeEach
+    void setUp() {
+        albums = cacheManager.getCache(CatalogCacheService.ALBUM_DETAILS);
+        artists = cacheManager.getCache(CatalogCacheService.ARTIST_DETAILS);
+
+        Artist artist = Artist.builder().name("Linked").type(ArtistType.BAND).build();
+        artist.setId(1L);
+        album = Album.builder().title("Linked Album").build();
+        album.setId(10L);
+        album.addArtist(artist);
+
+        albums.put(10L, "album 10");
+        albums.put(11L, "album 11");
+        artists.put(1L, "artist 1");
+        artists.put(2L, "artist 2");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldEvictBothSidesOfLink() {
+        catalogCacheService.evictAlbum(album);
+
+        assertNull(albums.get(10L));
+        assertNull(artists.get(1L));
+        assertNotNull(albums.get(11L));
+        assertNotNull(artists.get(2L));
+    }
+
+    @Test
+    void shouldDeferEvictionUntilCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        catalogCacheService.evictAlbum(10L);
+        assertNotNull(albums.get(10L));
+
+        verify(catalogStatsService, never()).markStale();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertNull(albums.get(10L));
+        verify(catalogStatsService).markStale();
+    }
+
+    @Test
+    void shouldClearListResponsesOnEviction() {
+        long generation = responseCacheService.generation();
+        responseCacheService.put("/v1/albums?page=0&size=10&withTotal=true", generation, "application/json",
+                "\"albums-1\"", "[]".getBytes());
+        assertNotNull(responseCacheService.get("/v1/albums?page=0&size=10&withTotal=true"));
+
+        catalogCacheService.evictArtist(album.getArtists().iterator().next());
+
+        assertNull(responseCacheService.get("/v1/albums?page=0&size=10&withTotal=true"));
+    }
+
+    @Test
+    void shouldNotStoreListResponseRenderedBeforeChange() {
+        long renderedAt = responseCacheService.generation();
+        catalogCacheService.evictAlbum(10L);
+
+        ResponseCacheService.CachedResponse response = responseCacheService.put(
+                "/v1/artists?page=0&size=10&withTotal=true", renderedAt, "application/json", "\"artists-1\"", "{}".getBytes());
+
+        assertEquals("\"artists-1\"", response.etag());
+        assertEquals("\"artists-1-gzip\"", response.gzipEtag());
+        assertNull(responseCacheService.get("/v1/artists?page=0&size=10&withTotal=true"));
+    }
+}
@@ -0,0 +1,49 @@
+package com.pss.fullstack.service;
+
+import com.pss.fullstack.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class CatalogStatsServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    // no debounce: a requested refresh runs on the next poll
+    private final CatalogStatsService catalogStatsService = new CatalogStatsService(jdbcTemplate);
+
+    @Test
+    void shouldRefreshOnlyWhenRequested() {
+        catalogStatsService.refreshIfQuiet();
+        verifyNoInteractions(jdbcTemplate);
+
+        catalogStatsService.markStale();
+        catalogStatsService.markStale();
+        catalogStatsService.refreshIfQuiet();
+        catalogStatsService.refreshIfQuiet();
+
+        verify(jdbcTemplate).execute("REFRESH MATERIALIZED VIEW CONCURRENTLY artist_stats");
+        verify(jdbcTemplate).execute("REFRESH MATERIALIZED VIEW CONCURRENTLY catalog_stats");
+    }
+
+    @Test
+    void shouldRetryFailedRefreshOnNextPoll() {
+        doThrow(new IllegalStateException("lock timeout")).doNothing().when(jdbcTemplate).execute(anyString());
+
+        catalogStatsService.markStale();
+        catalogStatsService.refreshIfQuiet();
+        catalogStatsService.refreshIfQuiet();
+        catalogStatsService.refreshIfQuiet();
+
+        // failed attempt, then both views once
+        verify(jdbcTemplate, times(3)).execute(anyString());
+    }
+
+    @Test
+    void shouldRejectUnknownRanking() {
+        assertThrows(BusinessException.class, () -> catalogStatsService.getTopArtists("name", 10));
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.pss.fullstack.service;
+
+import com.pss.fullstack.model.TrackSeekIndex;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Mp3SeekIndexerTest {
+
+    // MPEG-1 Layer III, 128 kbps, 44.1 kHz, no padding, stereo: 417-byte frames of 1152 samples
+    private static final byte[] FRAME_HEADER = {(byte) 0xFF, (byte) 0xFB, (byte) 0x90, 0x00};
+    private static final int FRAME_LENGTH = 417;
+
+    @Test
+    void shouldMapPositionsToFrameOffsets() throws Exception {
+        ByteArrayOutputStream mp3 = new ByteArrayOutputStream();
+        mp3.write(new byte[]{'I', 'D', '3', 4, 0, 0, 0, 0, 0, 20});
+        mp3.write(new byte[20]);
+        mp3.write(frame("Xing"));
+        for (int i = 0; i < 100; i++) {
+            mp3.write(frame(null));
+        }
+        mp3.write("TAG".getBytes(StandardCharsets.ISO_8859_1));
+
+        TrackSeekIndex index = Mp3SeekIndexer.index(new ByteArrayInputStream(mp3.toByteArray()));
+
+        long firstAudioFrame = 30 + FRAME_LENGTH;
+        assertNotNull(index);
+        assertEquals(100 * 1152 * 1000 / 44100, index.getDurationMs());
+        assertEquals(firstAudioFrame, index.offsetAt(0));
+        // 1000 ms falls in frame 38 (38 * 1152 / 44.1 = 992.6 ms)
+        assertEquals(firstAudioFrame + 38L * FRAME_LENGTH, index.offsetAt(1000));
+        // Positions between table steps resolve to the preceding step: 2600 ms -> 2500 ms, frame 95
+        assertEquals(firstAudioFrame + 95L * FRAME_LENGTH, index.offsetAt(2600));
+    }
+
+    @Test
+    void shouldReturnNullWithoutFrames() throws Exception {
+        byte[] wav = "RIFF....WAVEfmt not an mp3 at all".getBytes(StandardCharsets.ISO_8859_1);
+
+        assertNull(Mp3SeekIndexer.index(new ByteArrayInputStream(wav)));
+    }
+
+    private byte[] frame(String tag) {
+        byte[] frame = new byte[FRAME_LENGTH];
+        System.arraycopy(FRAME_HEADER, 0, frame, 0, FRAME_HEADER.length);
+        if (tag != null) {
+            // Stereo MPEG-1: 32 bytes of side info after the header
+            System.arraycopy(tag.getBytes(StandardCharsets.ISO_8859_1), 0, frame, 4 + 32, tag.length());
+        }
+        return frame;
+    }
+}
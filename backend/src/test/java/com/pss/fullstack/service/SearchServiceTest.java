@@ -0,0 +1,69 @@
+package com.pss.fullstack.service;
+
+import com.pss.fullstack.dto.SearchHitDTO;
+import com.pss.fullstack.dto.SearchHitRow;
+import com.pss.fullstack.exception.BusinessException;
+import com.pss.fullstack.repository.AlbumRepository;
+import com.pss.fullstack.repository.ArtistRepository;
+import com.pss.fullstack.repository.TrackRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SearchServiceTest {
+
+    @Mock
+    private AlbumRepository albumRepository;
+
+    @Mock
+    private ArtistRepository artistRepository;
+
+    @Mock
+    private TrackRepository trackRepository;
+
+    @InjectMocks
+    private SearchService searchService;
+
+    @Test
+    void shouldMergeHitsByScore() {
+        when(albumRepository.search("illusion", 2)).thenReturn(List.of(row(11L, "Use Your Illusion I", null, 0.9)));
+        when(artistRepository.search("illusion", 2)).thenReturn(List.of());
+        when(trackRepository.search("illusion", 2)).thenReturn(List.of(
+                row(5L, "Illusion Song", 11L, 0.95),
+                row(6L, "Another Illusion", 12L, 0.4)));
+
+        List<SearchHitDTO> hits = searchService.search("  illusion ", 2);
+
+        assertEquals(2, hits.size());
+        assertEquals(SearchHitDTO.Type.TRACK, hits.get(0).getType());
+        assertEquals(11L, hits.get(0).getAlbumId());
+        assertEquals(SearchHitDTO.Type.ALBUM, hits.get(1).getType());
+        assertEquals("Use Your Illusion I", hits.get(1).getTitle());
+    }
+
+    @Test
+    void shouldRejectBlankQuery() {
+        assertThrows(BusinessException.class, () -> searchService.search("   ", 10));
+        verify(albumRepository, never()).search(anyString(), anyInt());
+    }
+
+    private SearchHitRow row(Long id, String title, Long albumId, double score) {
+        return new SearchHitRow() {
+            public Long getId() { return id; }
+            public String getTitle() { return title; }
+            public String getSubtitle() { return null; }
+            public Long getAlbumId() { return albumId; }
+            public Double getScore() { return score; }
+        };
+    }
+}
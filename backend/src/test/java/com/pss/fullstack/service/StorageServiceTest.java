@@ -0,0 +1,158 @@
+package com.pss.fullstack.service;
+
+import com.pss.fullstack.exception.InvalidFileException;
+import com.pss.fullstack.repository.StoredObjectRepository;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectArgs;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StorageServiceTest {
+
+    @Mock
+    private MinioClient minioClient;
+
+    @Mock
+    private StoredObjectRepository storedObjectRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private StorageService storageService;
+
+    private MockMultipartFile coverFile;
+    private String expectedKey;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ReflectionTestUtils.setField(storageService, "bucketName", "album-covers");
+
+        byte[] content = "cover-image-bytes".getBytes(StandardCharsets.UTF_8);
+        coverFile = new MockMultipartFile("file", "cover.JPG", "image/jpeg", content);
+        expectedKey = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content)) + ".jpg";
+    }
+
+    @Test
+    void shouldReuseExistingObjectWithoutStorageWrite() throws Exception {
+        when(storedObjectRepository.incrementRefCount("album-covers", expectedKey)).thenReturn(1);
+
+        String key = storageService.uploadFile(coverFile);
+
+        assertEquals(expectedKey, key);
+        verify(minioClient, never()).putObject(any(PutObjectArgs.class));
+        verify(storedObjectRepository, never()).insertOrIncrement(any(), any(), any(), anyLong(), any());
+    }
+
+    @Test
+    void shouldUploadNewContentUnderContentAddressedKey() throws Exception {
+        when(storedObjectRepository.incrementRefCount("album-covers", expectedKey)).thenReturn(0);
+        when(minioClient.bucketExists(any())).thenReturn(true);
+
+        String key = storageService.uploadFile(coverFile);
+
+        assertEquals(expectedKey, key);
+        verify(minioClient, times(1)).putObject(any(PutObjectArgs.class));
+        verify(storedObjectRepository, times(1)).insertOrIncrement(
+                eq("album-covers"), eq(expectedKey), eq(expectedKey.substring(0, 64)), eq(coverFile.getSize()), eq("image/jpeg"));
+    }
+
+    @Test
+    void shouldDeriveKeySuffixFromContentTypeNotFilename() throws Exception {
+        when(storedObjectRepository.incrementRefCount("album-covers", expectedKey)).thenReturn(1);
+        MockMultipartFile renamed = new MockMultipartFile("file", "cover.jpeg", "image/jpeg", coverFile.getBytes());
+
+        assertEquals(expectedKey, storageService.uploadFile(renamed));
+    }
+
+    @Test
+    void shouldFeedChecksumDuringHashingPass() throws Exception {
+        when(storedObjectRepository.incrementRefCount("album-covers", expectedKey)).thenReturn(1);
+        CRC32 crc = new CRC32();
+
+        storageService.storeContentAddressed(coverFile, coverFile.getSize(), "image/jpeg", "album-covers", ".jpg", crc);
+
+        CRC32 expected = new CRC32();
+        expected.update(coverFile.getBytes());
+        assertEquals(expected.getValue(), crc.getValue());
+    }
+
+    @Test
+    void shouldReleaseReferenceWhenCallerRollsBack() throws Exception {
+        when(storedObjectRepository.incrementRefCount("album-covers", expectedKey)).thenReturn(1);
+        when(storedObjectRepository.decrementRefCount("album-covers", expectedKey)).thenReturn(1);
+        when(storedObjectRepository.deleteIfUnreferenced("album-covers", expectedKey)).thenReturn(0);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            storageService.uploadFile(coverFile);
+            verify(storedObjectRepository, never()).decrementRefCount(any(), any());
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(storedObjectRepository, times(1)).decrementRefCount("album-covers", expectedKey);
+        verify(minioClient, never()).removeObject(any(RemoveObjectArgs.class));
+    }
+
+    @Test
+    void shouldRejectInvalidContentType() {
+        MockMultipartFile textFile = new MockMultipartFile("file", "notes.txt", "text/plain", new byte[]{1});
+
+        assertThrows(InvalidFileException.class, () -> storageService.uploadFile(textFile));
+    }
+
+    @Test
+    void shouldKeepObjectWhileReferencesRemain() throws Exception {
+        when(storedObjectRepository.decrementRefCount("album-covers", expectedKey)).thenReturn(1);
+        when(storedObjectRepository.deleteIfUnreferenced("album-covers", expectedKey)).thenReturn(0);
+
+        storageService.deleteFile(expectedKey);
+
+        verify(minioClient, never()).removeObject(any(RemoveObjectArgs.class));
+    }
+
+    @Test
+    void shouldRemoveObjectWhenLastReferenceIsReleased() throws Exception {
+        when(storedObjectRepository.decrementRefCount("album-covers", expectedKey)).thenReturn(1);
+        when(storedObjectRepository.deleteIfUnreferenced("album-covers", expectedKey)).thenReturn(1);
+
+        storageService.deleteFile(expectedKey);
+
+        verify(minioClient, times(1)).removeObject(any(RemoveObjectArgs.class));
+    }
+
+    @Test
+    void shouldRemoveUntrackedLegacyObjectDirectly() throws Exception {
+        when(storedObjectRepository.decrementRefCount("album-covers", "legacy-uuid.jpg")).thenReturn(0);
+        when(storedObjectRepository.existsByBucketAndObjectKey("album-covers", "legacy-uuid.jpg")).thenReturn(false);
+
+        storageService.deleteFile("legacy-uuid.jpg");
+
+        verify(minioClient, times(1)).removeObject(any(RemoveObjectArgs.class));
+    }
+
+}
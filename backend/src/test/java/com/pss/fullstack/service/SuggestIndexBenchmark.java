@@ -0,0 +1,66 @@
+package com.pss.fullstack.service;
+
+import com.pss.fullstack.dto.SearchHitDTO.Type;
+import com.pss.fullstack.dto.SuggestionDTO;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup latency of the typeahead index over a synthetic catalog drawn from a tiny
+ * vocabulary, so postings are far longer than with real titles (a worst case).
+ * Not part of the test suite; run with:
+ * {@code mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * "-Dexec.args=-cp %classpath com.pss.fullstack.service.SuggestIndexBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SuggestIndexBenchmark {
+
+    private static final String[] WORDS = {
+            "love", "night", "heart", "rain", "fire", "dream", "light", "road", "home", "rose",
+            "saudade", "coração", "sertão", "lua", "mar", "illusion", "garden", "crime", "shadow", "ghost"
+    };
+
+    @Param({"10000", "200000"})
+    public int documents;
+
+    @Param({"l", "lov", "illusion ga", "saudade cora"})
+    public String query;
+
+    private SuggestIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new SuggestIndex();
+        for (int id = 1; id <= documents; id++) {
+            StringBuilder title = new StringBuilder();
+            int words = 1 + random.nextInt(4);
+            for (int w = 0; w < words; w++) {
+                title.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+            title.append(id);
+            Type type = id % 10 == 0 ? Type.ARTIST : id % 4 == 0 ? Type.ALBUM : Type.TRACK;
+            index.put(type, id, title.toString(), type == Type.TRACK ? id / 12 + 1 : 0);
+        }
+    }
+
+    @Benchmark
+    public List<SuggestionDTO> suggest() {
+        return index.suggest(query, 10);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SuggestIndexBenchmark.class.getSimpleName()).build()).run();
+    }
+}
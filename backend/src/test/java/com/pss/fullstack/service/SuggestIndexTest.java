@@ -0,0 +1,95 @@
+package com.pss.fullstack.service;
+
+import com.pss.fullstack.dto.SearchHitDTO.Type;
+import com.pss.fullstack.dto.SuggestionDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SuggestIndexTest {
+
+    private SuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SuggestIndex();
+        index.put(Type.ARTIST, 1, "Guns N' Roses", 0);
+        index.put(Type.ALBUM, 11, "Use Your Illusion I", 0);
+        index.put(Type.ALBUM, 12, "Use Your Illusion II", 0);
+        index.put(Type.TRACK, 101, "Don't Cry (Original)", 11);
+        index.put(Type.TRACK, 102, "You Ain't the First", 11);
+        index.put(Type.ALBUM, 8, "Bem Sertanejo", 0);
+    }
+
+    @Test
+    void shouldMatchWordPrefixes() {
+        assertEquals(List.of(11L, 12L), ids(index.suggest("illu", 10)));
+        // The track title starts with the query, so it ranks before the albums
+        assertEquals(List.of(102L, 11L, 12L), ids(index.suggest("yo", 10)));
+        assertEquals(List.of(1L), ids(index.suggest("ROS gun", 10)));
+        assertEquals(List.of(), ids(index.suggest("llusion", 10)));
+    }
+
+    @Test
+    void shouldIgnoreAccentsAndPunctuation() {
+        assertEquals(List.of(8L), ids(index.suggest("sertanéjo", 10)));
+        assertEquals(List.of(101L), ids(index.suggest("dont cr", 10)));
+    }
+
+    @Test
+    void shouldRankWholeTextPrefixFirstAndRespectLimit() {
+        List<SuggestionDTO> suggestions = index.suggest("you", 1);
+
+        assertEquals(1, suggestions.size());
+        assertEquals(Type.TRACK, suggestions.get(0).getType());
+        assertEquals(11L, suggestions.get(0).getAlbumId());
+    }
+
+    @Test
+    void shouldApplyUpdatesAndRemovals() {
+        index.put(Type.ALBUM, 11, "Appetite for Destruction", 0);
+        index.remove(Type.ALBUM, 12);
+        index.removeTracksOf(11);
+
+        assertEquals(List.of(), ids(index.suggest("illusion", 10)));
+        assertEquals(List.of(11L), ids(index.suggest("appet", 10)));
+        assertEquals(List.of(), ids(index.suggest("cry", 10)));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void shouldRemoveOnlyTracksStillOnTheAlbum() {
+        index.put(Type.TRACK, 102, "You Ain't the First", 12);
+        index.put(Type.TRACK, 101, "Don't Cry (Alt Lyrics)", 11);
+        index.removeTracksOf(11);
+
+        assertEquals(List.of(), ids(index.suggest("cry", 10)));
+        assertEquals(List.of(102L), ids(index.suggest("first", 10)));
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    void shouldStayConsistentAcrossCompaction() {
+        for (int round = 0; round < 5; round++) {
+            for (long id = 1000; id < 3000; id++) {
+                index.put(Type.TRACK, id, "Track " + id + " round " + round, 7);
+            }
+        }
+
+        assertEquals(6 + 2000, index.size());
+        assertEquals(List.of(2999L), ids(index.suggest("2999 round 4", 10)));
+        assertEquals(List.of(), ids(index.suggest("round 3", 10)));
+        assertEquals(List.of(11L, 12L), ids(index.suggest("illusion", 10)));
+
+        index.removeTracksOf(7);
+        assertEquals(6, index.size());
+        assertEquals(List.of(), ids(index.suggest("track", 10)));
+    }
+
+    private List<Long> ids(List<SuggestionDTO> suggestions) {
+        return suggestions.stream().map(SuggestionDTO::getId).toList();
+    }
+}
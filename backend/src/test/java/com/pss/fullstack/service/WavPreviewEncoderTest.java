@@ -0,0 +1,53 @@
+package com.pss.fullstack.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WavPreviewEncoderTest {
+
+    @Test
+    void shouldDownsampleExcerptToEightBitMono() throws Exception {
+        // 3 seconds of 16-bit stereo at 44.1 kHz, left at full scale, right silent
+        byte[] wav = pcmWav(44100, 3, (short) 32767, (short) 0);
+
+        byte[] preview = WavPreviewEncoder.encode(new ByteArrayInputStream(wav), 2);
+
+        ByteBuffer header = ByteBuffer.wrap(preview).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals("RIFF", new String(preview, 0, 4, StandardCharsets.US_ASCII));
+        assertEquals(1, header.getShort(22));                          // mono
+        assertEquals(WavPreviewEncoder.PREVIEW_SAMPLE_RATE, header.getInt(24));
+        assertEquals(8, header.getShort(34));                          // bits per sample
+        assertEquals(2 * WavPreviewEncoder.PREVIEW_SAMPLE_RATE, header.getInt(40));
+        assertEquals(44 + 2 * WavPreviewEncoder.PREVIEW_SAMPLE_RATE, preview.length);
+        // Channel average of 32767 and 0, as unsigned 8-bit
+        assertEquals((16383 >> 8) + 128, preview[44] & 0xFF);
+    }
+
+    @Test
+    void shouldRejectNonPcmInput() throws Exception {
+        byte[] mp3 = {(byte) 0xFF, (byte) 0xFB, (byte) 0x90, 0x00, 0, 0, 0, 0, 0, 0, 0, 0};
+
+        assertNull(WavPreviewEncoder.encode(new ByteArrayInputStream(mp3), 30));
+    }
+
+    private byte[] pcmWav(int sampleRate, int seconds, short left, short right) {
+        int frames = sampleRate * seconds;
+        ByteBuffer wav = ByteBuffer.allocate(44 + frames * 4).order(ByteOrder.LITTLE_ENDIAN);
+        wav.put("RIFF".getBytes(StandardCharsets.US_ASCII)).putInt(36 + frames * 4)
+                .put("WAVE".getBytes(StandardCharsets.US_ASCII))
+                .put("fmt ".getBytes(StandardCharsets.US_ASCII)).putInt(16)
+                .putShort((short) 1).putShort((short) 2).putInt(sampleRate).putInt(sampleRate * 4)
+                .putShort((short) 4).putShort((short) 16)
+                .put("data".getBytes(StandardCharsets.US_ASCII)).putInt(frames * 4);
+        for (int i = 0; i < frames; i++) {
+            wav.putShort(left).putShort(right);
+        }
+        return wav.array();
+    }
+}
@@ -37,6 +37,7 @@ describe('ArtistFormComponent', () => {
     biography: 'Test biography',
     active: true,
     photoUrl: 'http://example.com/photo.jpg',
+    albumCount: 0,
     albums: []
   };
 
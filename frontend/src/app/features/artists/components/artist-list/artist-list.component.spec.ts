@@ -34,6 +34,7 @@ describe('ArtistListComponent', () => {
     biography: 'Test biography',
     active: true,
     photoUrl: 'http://example.com/photo.jpg',
+    albumCount: 0,
     albums: []
   };
 
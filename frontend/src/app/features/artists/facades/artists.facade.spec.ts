@@ -26,6 +26,7 @@ describe('ArtistsFacade', () => {
     biography: 'Test biography',
     active: true,
     photoUrl: 'http://example.com/photo.jpg',
+    albumCount: 0,
     albums: []
   };
 
@@ -7,6 +7,8 @@ export interface Artist {
   active: boolean;
   photoKey?: string;
   photoUrl?: string;
+  // Active albums; list responses carry only the newest few in albums
+  albumCount: number;
   albums?: AlbumSummary[];
   createdAt?: string;
   updatedAt?: string;
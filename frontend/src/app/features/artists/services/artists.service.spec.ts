@@ -27,6 +27,7 @@ describe('ArtistsService', () => {
     biography: 'Test biography',
     active: true,
     photoUrl: 'http://example.com/photo.jpg',
+    albumCount: 0,
     albums: []
   };
 